@@ -0,0 +1,103 @@
+package bankingSystem;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+
+// AccountBenchmark class
+// Per-operation cost of deposit, withdraw, loan request/approval and balance query.
+// Uncontended methods run one thread over random accounts; *Contended methods run
+// four threads against the same account, so they measure the monitor and lock hand-off.
+// With indexed, every balance and loan change also re-keys the account in the balance index.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class AccountBenchmark {
+    private static final long AMOUNT = Money.of(1);
+    private static final long LOAN = Money.of(0.01);
+    private static final long TOP_UP = Money.of(1_000_000_000);
+
+    @Param({ "1000", "100000", "1000000", "10000000" })
+    int accounts;
+
+    @Param({ "false", "true" })
+    boolean indexed;
+
+    Bank bank;
+    String[] holders;
+    String hotHolder;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bank = BenchmarkBanks.inMemory(accounts);
+        holders = new String[accounts];
+        for (int i = 0; i < accounts; i++) holders[i] = BenchmarkBanks.holder(i);
+        hotHolder = holders[0];
+        bank.setBalanceIndexing(indexed);
+    }
+
+    // Keeps withdrawals and loan requests on their success path for the whole iteration
+    @Setup(Level.Iteration)
+    public void refill() {
+        bank.deposit(hotHolder, TOP_UP);
+        for (String holder : holders) bank.getAccount(holder).setLoanAmount(0);
+    }
+
+    private String randomHolder() {
+        return holders[ThreadLocalRandom.current().nextInt(accounts)];
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean deposit() {
+        return bank.deposit(randomHolder(), AMOUNT);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean withdraw() {
+        return bank.withdraw(randomHolder(), AMOUNT);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void requestAndApproveLoan() {
+        bank.requestLoan(randomHolder(), LOAN);
+        bank.approveLoan();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public double queryBalance() {
+        return bank.queryBalance(randomHolder());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean depositSpread() {
+        return bank.deposit(randomHolder(), AMOUNT);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean depositContended() {
+        return bank.deposit(hotHolder, AMOUNT);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean withdrawContended() {
+        return bank.withdraw(hotHolder, AMOUNT);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void requestLoanContended() {
+        bank.requestLoan(hotHolder, LOAN);
+        bank.approveLoan();
+    }
+}
@@ -0,0 +1,74 @@
+package bankingSystem;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+
+// AuditQueryBenchmark class
+// Latency of the indexed operation history queries: by holder, by kind within a year, and a
+// whole year, each against the same query answered by a full scan of the history (scan*).
+// The history is spread over ACCOUNTS holders and YEARS years; at 100M operations it takes
+// 4 GB of mapped segment files in the temporary directory.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class AuditQueryBenchmark {
+    private static final int ACCOUNTS = 1000;
+    private static final int YEARS = 10;
+    private static final String[] COMMANDS = { "deposit 100", "withdraw 50", "request 20", "query" };
+
+    @Param({ "100000", "1000000", "10000000", "100000000" })
+    int operations;
+
+    Bank bank;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bank = BenchmarkBanks.inMemory(ACCOUNTS);
+        int perYear = operations / YEARS;
+        for (int i = 0; i < operations; i++) {
+            if (i > 0 && i % perYear == 0) bank.incrementYear();
+            bank.addOperation(COMMANDS[i % COMMANDS.length], BenchmarkBanks.holder(i % ACCOUNTS));
+        }
+    }
+
+    @Benchmark
+    public long byHolder() {
+        String holder = BenchmarkBanks.holder(ThreadLocalRandom.current().nextInt(ACCOUNTS));
+        return bank.queryOperations(OperationQuery.all().by(holder)).count();
+    }
+
+    @Benchmark
+    public long byKindInYear() {
+        int year = ThreadLocalRandom.current().nextInt(YEARS);
+        return bank.queryOperations(OperationQuery.all().ofKind(OperationKind.WITHDRAW).inYear(year)).count();
+    }
+
+    @Benchmark
+    public long byYear() {
+        int year = ThreadLocalRandom.current().nextInt(YEARS);
+        return bank.queryOperations(OperationQuery.all().inYear(year)).count();
+    }
+
+    @Benchmark
+    public long scanByHolder() {
+        String holder = BenchmarkBanks.holder(ThreadLocalRandom.current().nextInt(ACCOUNTS));
+        return bank.scanOperations(OperationQuery.all().by(holder)).count();
+    }
+
+    @Benchmark
+    public long scanByKindInYear() {
+        int year = ThreadLocalRandom.current().nextInt(YEARS);
+        return bank.scanOperations(OperationQuery.all().ofKind(OperationKind.WITHDRAW).inYear(year)).count();
+    }
+
+    @Benchmark
+    public long scanByYear() {
+        int year = ThreadLocalRandom.current().nextInt(YEARS);
+        return bank.scanOperations(OperationQuery.all().inYear(year)).count();
+    }
+}
@@ -0,0 +1,51 @@
+package bankingSystem;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+
+// BalanceQueryBenchmark class
+// Latency of the top-K and threshold balance queries, with the ordered balance index kept up
+// to date and without it (each query then scans the store). Balances are spread uniformly
+// over [0, MAX_BALANCE), so the threshold query returns about THRESHOLD / MAX_BALANCE of them.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class BalanceQueryBenchmark {
+    private static final int TOP = 10;
+    private static final double MAX_BALANCE = 10_000_000;
+    private static final double THRESHOLD = 1_000;
+
+    @Param({ "100000", "1000000" })
+    int accounts;
+
+    @Param({ "false", "true" })
+    boolean indexed;
+
+    Bank bank;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bank = new Bank(BankEventSink.NONE);
+        Random random = new Random(42);
+        for (int i = 0; i < accounts; i++) {
+            bank.createAccount(BenchmarkBanks.holder(i), "savings", random.nextDouble() * MAX_BALANCE);
+        }
+        bank.setBalanceIndexing(indexed);
+    }
+
+    @Benchmark
+    public List<AccountAmount> largestBalances() {
+        return bank.largestBalances(TOP);
+    }
+
+    @Benchmark
+    public List<AccountAmount> balancesBelow() {
+        return bank.balancesBelow(THRESHOLD);
+    }
+}
@@ -0,0 +1,28 @@
+package bankingSystem;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+// BankBenchmarks class
+// Entry point of benchmarks.jar: the usual JMH command line, with the GC profiler always
+// attached so allocation rates (gc.alloc.rate.norm, bytes per operation) are reported next to times.
+public class BankBenchmarks {
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions options = new CommandLineOptions(args);
+        if (options.shouldHelp() || options.shouldList() || options.shouldListProfilers()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        try {
+            new Runner(new OptionsBuilder().parent(options).addProfiler(GCProfiler.class).build()).run();
+        } catch (RunnerException e) {
+            System.err.println("Benchmark run failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package bankingSystem;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+
+// BatchBenchmark class
+// A payroll-style load of deposits applied through Bank.applyBatch versus the same rows sent
+// one by one through Bank.deposit. Scores are per whole load.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class BatchBenchmark {
+    private static final int ACCOUNTS = 100_000;
+    private static final double SALARY = 2500;
+
+    @Param({ "1000", "100000", "1000000" })
+    int rows;
+
+    Bank bank;
+    TransactionBatch batch;
+    String[] holders;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bank = BenchmarkBanks.inMemory(ACCOUNTS);
+        batch = new TransactionBatch(rows);
+        holders = new String[rows];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int row = 0; row < rows; row++) {
+            // Fixed deposits would reject payroll-sized deposits, so use savings and student holders
+            int id = random.nextInt(ACCOUNTS / 3) * 3 + random.nextInt(2);
+            holders[row] = BenchmarkBanks.holder(id);
+            batch.add(holders[row], TransactionBatch.Operation.DEPOSIT, SALARY);
+        }
+    }
+
+    @Benchmark
+    public byte[] applyBatch() {
+        return bank.applyBatch(batch);
+    }
+
+    @Benchmark
+    public int singleDeposits() {
+        long amount = Money.of(SALARY);
+        int applied = 0;
+        for (String holder : holders) if (bank.deposit(holder, amount)) applied++;
+        return applied;
+    }
+}
@@ -0,0 +1,45 @@
+package bankingSystem;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+
+// BenchmarkBanks class
+// Shared fixtures: silent banks filled with a repeating savings/student/fixed deposit mix
+final class BenchmarkBanks {
+    static final String[] TYPES = { "savings", "student", "fixed deposit" };
+    static final double INITIAL_DEPOSIT = 1_000_000;
+
+    private BenchmarkBanks() {}
+
+    static String holder(int index) { return "holder" + index; }
+
+    static Bank populate(Bank bank, int accounts) {
+        for (int i = 0; i < accounts; i++) bank.createAccount(holder(i), TYPES[i % TYPES.length], INITIAL_DEPOSIT);
+        return bank;
+    }
+
+    static Bank inMemory(int accounts) {
+        return populate(new Bank(BankEventSink.NONE), accounts);
+    }
+
+    static Path temporaryDirectory(String prefix) {
+        try {
+            return Files.createTempDirectory(prefix);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static void delete(Path directory) {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
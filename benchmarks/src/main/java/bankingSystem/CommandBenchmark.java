@@ -0,0 +1,66 @@
+package bankingSystem;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+
+// CommandBenchmark class
+// Cost of one command line through the session parser down to the bank. CommandSession sits
+// in the default package, which a named package cannot import, so it is bound by a method handle.
+// Every command is appended to the operation history, so iterations are short and each starts
+// from a fresh bank.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandBenchmark {
+    private static final MethodHandle NEW_SESSION;
+    private static final MethodHandle HANDLE;
+
+    static {
+        try {
+            Class<?> session = Class.forName("CommandSession");
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            NEW_SESSION = lookup.findConstructor(session,
+                    MethodType.methodType(void.class, Bank.class, Set.class, PrintStream.class))
+                    .asType(MethodType.methodType(Object.class, Bank.class, Set.class, PrintStream.class));
+            HANDLE = lookup.findVirtual(session, "handle", MethodType.methodType(boolean.class, String.class))
+                    .asType(MethodType.methodType(boolean.class, Object.class, String.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    Object session;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws Throwable {
+        Bank bank = BenchmarkBanks.inMemory(0);
+        PrintStream out = new PrintStream(OutputStream.nullOutputStream());
+        session = NEW_SESSION.invokeExact(bank, Set.of("MD", "O1", "O2", "C1", "C2", "C3", "C4", "C5"), out);
+        HANDLE.invoke(session, "create Alice savings 1,000,000");
+    }
+
+    @Benchmark
+    public boolean deposit() throws Throwable {
+        return (boolean) HANDLE.invokeExact(session, "deposit 1,000.50");
+    }
+
+    @Benchmark
+    public boolean withdraw() throws Throwable {
+        return (boolean) HANDLE.invokeExact(session, "withdraw 0.25");
+    }
+
+    @Benchmark
+    public boolean query() throws Throwable {
+        return (boolean) HANDLE.invokeExact(session, "query");
+    }
+}
@@ -0,0 +1,39 @@
+package bankingSystem;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+
+// EmployeeBenchmark class
+// Cost of hiring: one employee at a time from four threads at once, which contend only on the
+// role's counter, and onboarding BULK employees in one call. The bank is replaced every
+// iteration so the registry does not grow without bound.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class EmployeeBenchmark {
+    private static final int BULK = 1000;
+
+    Bank bank;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        bank = new Bank(BankEventSink.NONE);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Employee createEmployee() {
+        return bank.createEmployee("C");
+    }
+
+    @Benchmark
+    @Threads(1)
+    public List<Employee> createEmployees() {
+        return bank.createEmployees("O", BULK);
+    }
+}
@@ -0,0 +1,55 @@
+package bankingSystem;
+
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+
+// JournalBenchmark class
+// Deposit throughput of a journaled bank under each sync policy. With several threads the
+// BATCHED policy shares one fsync between the operations of a group commit.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JournalBenchmark {
+    private static final int ACCOUNTS = 1000;
+    private static final long AMOUNT = Money.of(1);
+
+    @Param({ "EVERY_OPERATION", "BATCHED", "NONE" })
+    Journal.SyncPolicy policy;
+
+    Path directory;
+    Bank bank;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        directory = BenchmarkBanks.temporaryDirectory("bank-journal-benchmark");
+        bank = BenchmarkBanks.populate(Bank.recover(directory, policy, BankEventSink.NONE), ACCOUNTS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        bank.close();
+        BenchmarkBanks.delete(directory);
+    }
+
+    private String randomHolder() {
+        return BenchmarkBanks.holder(ThreadLocalRandom.current().nextInt(ACCOUNTS));
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean deposit() {
+        return bank.deposit(randomHolder(), AMOUNT);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean depositConcurrent() {
+        return bank.deposit(randomHolder(), AMOUNT);
+    }
+}
@@ -0,0 +1,130 @@
+package bankingSystem;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+// LoadGenerator class
+// Client for a bank started with --serve. It opens many sessions at once, each creating its
+// own savings account and then cycling deposit, withdraw and query, and reports the round-trip
+// latency percentiles of those commands. A response is complete at its closing empty line.
+// All sessions connect and create their account before any of them starts measuring.
+//
+// Usage: java -cp benchmarks.jar bankingSystem.LoadGenerator <port|socket path> [sessions] [commands per session]
+public class LoadGenerator {
+    private static final long SESSION_STACK_SIZE = 256 * 1024;
+    private static final String[] COMMANDS = { "deposit 100", "withdraw 50", "query" };
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Usage: LoadGenerator <port|socket path> [sessions] [commands per session]");
+            System.exit(2);
+        }
+        SocketAddress address = address(args[0]);
+        int sessions = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        int commands = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+
+        // Holder names are unique per run, so a journaled server can be loaded again
+        String prefix = "load" + Long.toString(System.currentTimeMillis(), 36) + "n";
+        long[][] latencies = new long[sessions][];
+        AtomicInteger failures = new AtomicInteger();
+        CountDownLatch ready = new CountDownLatch(sessions);
+        CountDownLatch go = new CountDownLatch(1);
+        Thread[] threads = new Thread[sessions];
+
+        for (int i = 0; i < sessions; i++) {
+            int session = i;
+            threads[i] = new Thread(null, () -> {
+                try {
+                    latencies[session] = run(address, prefix + session, commands, ready, go);
+                } catch (IOException | InterruptedException e) {
+                    failures.incrementAndGet();
+                    ready.countDown();
+                }
+            }, "load-" + i, SESSION_STACK_SIZE);
+            threads[i].start();
+        }
+
+        ready.await();
+        long start = System.nanoTime();
+        go.countDown();
+        for (Thread thread : threads) thread.join();
+        long elapsed = System.nanoTime() - start;
+
+        report(latencies, sessions, failures.get(), elapsed);
+    }
+
+    private static SocketAddress address(String address) {
+        if (address.chars().allMatch(Character::isDigit)) {
+            return new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(address));
+        }
+        return UnixDomainSocketAddress.of(address);
+    }
+
+    // Method to run one session and return the latency of each measured command in nanoseconds
+    private static long[] run(SocketAddress address, String holder, int commands,
+                              CountDownLatch ready, CountDownLatch go) throws IOException, InterruptedException {
+        try (SocketChannel channel = SocketChannel.open(address);
+             BufferedReader in = new BufferedReader(new InputStreamReader(
+                     Channels.newInputStream(channel), StandardCharsets.UTF_8));
+             PrintStream out = new PrintStream(new BufferedOutputStream(
+                     Channels.newOutputStream(channel)), false, StandardCharsets.UTF_8)) {
+            if (address instanceof InetSocketAddress) channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            readResponse(in);
+            send(out, in, "create " + holder + " savings 100000");
+            ready.countDown();
+            go.await();
+
+            long[] latencies = new long[commands];
+            for (int i = 0; i < commands; i++) {
+                long start = System.nanoTime();
+                send(out, in, COMMANDS[i % COMMANDS.length]);
+                latencies[i] = System.nanoTime() - start;
+            }
+
+            send(out, in, "close");
+            send(out, in, "exit");
+            return latencies;
+        }
+    }
+
+    private static void send(PrintStream out, BufferedReader in, String command) throws IOException {
+        out.println(command);
+        out.flush();
+        readResponse(in);
+    }
+
+    private static void readResponse(BufferedReader in) throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.isEmpty()) return;
+        }
+        throw new EOFException("Server closed the session");
+    }
+
+    private static void report(long[][] latencies, int sessions, int failures, long elapsed) {
+        long[] all = Arrays.stream(latencies).filter(session -> session != null).flatMapToLong(Arrays::stream).toArray();
+        Arrays.sort(all);
+
+        System.out.printf("sessions %d (failed %d), commands %d in %.2f s, %.0f commands/s%n",
+                sessions, failures, all.length, elapsed / 1e9, all.length / (elapsed / 1e9));
+        if (all.length == 0) return;
+        System.out.printf("latency us: p50 %.1f  p99 %.1f  p99.9 %.1f  max %.1f%n",
+                percentile(all, 0.50), percentile(all, 0.99), percentile(all, 0.999), all[all.length - 1] / 1e3);
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e3;
+    }
+}
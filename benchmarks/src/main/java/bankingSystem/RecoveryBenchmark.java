@@ -0,0 +1,46 @@
+package bankingSystem;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+
+// RecoveryBenchmark class
+// Startup time of Bank.recover over a journal holding one account creation and one deposit
+// per account, either replayed in full or loaded from a snapshot.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class RecoveryBenchmark {
+    @Param({ "1000", "100000", "1000000", "10000000" })
+    int accounts;
+
+    @Param({ "false", "true" })
+    boolean snapshot;
+
+    Path directory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        directory = BenchmarkBanks.temporaryDirectory("bank-recovery-benchmark");
+        Bank bank = BenchmarkBanks.populate(Bank.recover(directory, Journal.SyncPolicy.NONE, BankEventSink.NONE), accounts);
+        for (int i = 0; i < accounts; i++) bank.deposit(BenchmarkBanks.holder(i), Money.of(10));
+        if (snapshot) bank.snapshot();
+        bank.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkBanks.delete(directory);
+    }
+
+    @Benchmark
+    public Bank recover() {
+        Bank bank = Bank.recover(directory, Journal.SyncPolicy.NONE, BankEventSink.NONE);
+        bank.close();
+        return bank;
+    }
+}
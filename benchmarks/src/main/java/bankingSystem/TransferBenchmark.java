@@ -0,0 +1,85 @@
+package bankingSystem;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+
+// TransferBenchmark class
+// Throughput of Bank.transfer between random pairs (one thread, and four threads spread over
+// all accounts) and between two hot accounts in both directions, where every call contends on
+// the same pair of monitors. crossShard* measure the two-phase path of a four-shard bank.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class TransferBenchmark {
+    private static final long AMOUNT = Money.of(1);
+    private static final int SHARDS = 4;
+
+    @Param({ "1000", "100000", "1000000" })
+    int accounts;
+
+    Bank bank;
+    ShardedBank shardedBank;
+    String[] holders;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bank = BenchmarkBanks.inMemory(accounts);
+        shardedBank = new ShardedBank(SHARDS, BankEventSink.NONE);
+        holders = new String[accounts];
+        for (int i = 0; i < accounts; i++) {
+            holders[i] = BenchmarkBanks.holder(i);
+            // Fixed deposits only accept large deposits, so the sharded bank uses savings accounts
+            shardedBank.createAccount(holders[i], "savings", BenchmarkBanks.INITIAL_DEPOSIT);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        shardedBank.close();
+    }
+
+    private String randomHolder(ThreadLocalRandom random) {
+        return holders[random.nextInt(accounts)];
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean transfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return bank.transfer(randomHolder(random), randomHolder(random), AMOUNT);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean transferSpread() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return bank.transfer(randomHolder(random), randomHolder(random), AMOUNT);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean transferContended() {
+        // Savings account 0 and 3 trade back and forth, so both lock orders are exercised
+        boolean forward = ThreadLocalRandom.current().nextBoolean();
+        return bank.transfer(holders[forward ? 0 : 3], holders[forward ? 3 : 0], AMOUNT);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean crossShardTransfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return shardedBank.transfer(randomHolder(random), randomHolder(random), Money.toDouble(AMOUNT));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean crossShardTransferSpread() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return shardedBank.transfer(randomHolder(random), randomHolder(random), Money.toDouble(AMOUNT));
+    }
+}
@@ -0,0 +1,53 @@
+package bankingSystem;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+
+// YearEndBenchmark class
+// Cost of one incrementYear pass. Each iteration is a fixed batch of years starting from the
+// initial balances, so compounding interest never reaches the saturating slow path. Scores are
+// per batch of YEARS_PER_ITERATION years. In lazy mode a year-end only records the rates and
+// matures due deposits; the accounts are charged when they are next used.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, batchSize = YearEndBenchmark.YEARS_PER_ITERATION)
+@Measurement(iterations = 10, batchSize = YearEndBenchmark.YEARS_PER_ITERATION)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class YearEndBenchmark {
+    static final int YEARS_PER_ITERATION = 50;
+
+    @Param({ "1000", "100000", "1000000", "10000000" })
+    int accounts;
+
+    @Param({ "EAGER", "LAZY" })
+    AccrualMode mode;
+
+    Bank bank;
+    AccountStore store;
+    long[] balances;
+    int year;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bank = BenchmarkBanks.inMemory(accounts);
+        store = bank.getAccount(BenchmarkBanks.holder(0)).store;
+        balances = store.copyBalances(accounts);
+        bank.setAccrualMode(mode);
+    }
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        for (int id = 0; id < accounts; id++) {
+            store.setBalance(id, balances[id]);
+            store.setLoanAmount(id, 0);
+            store.setAccruedYear(id, year);
+        }
+    }
+
+    @Benchmark
+    public int incrementYear() {
+        return year = bank.incrementYear();
+    }
+}
@@ -0,0 +1,170 @@
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import bankingSystem.*;
+
+// CommandServer class
+// Serves the command grammar to many clients at once, over TCP on the loopback interface
+// (an address that is just a port number) or over a Unix domain socket (any other address is
+// its path). Each connection gets its own CommandSession and thread, all sharing one Bank.
+// Every response, including the greeting, ends with an empty line.
+// Sessions run on platform threads with small stacks, since this targets Java 17, where
+// virtual threads are not available.
+public class CommandServer implements AutoCloseable {
+    private static final long SESSION_STACK_SIZE = 256 * 1024;
+    // Thousands of clients may connect at once; the default backlog would drop some of them
+    private static final int ACCEPT_BACKLOG = 4096;
+    // Pause after a failed accept, e.g. out of file descriptors, so the acceptor does not spin
+    private static final long ACCEPT_RETRY_MILLIS = 100;
+
+    private final Bank bank;
+    private final SessionEventSink events;
+    private final boolean quiet;
+    private final Set<SocketChannel> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sessionCount = new AtomicLong();
+    private final CountDownLatch closed = new CountDownLatch(1);
+    private ServerSocketChannel server;
+    private Path socketFile;
+
+    public CommandServer(Bank bank, SessionEventSink events, boolean quiet) {
+        this.bank = bank;
+        this.events = events;
+        this.quiet = quiet;
+    }
+
+    // Method to turn a port number or a socket path into an address
+    static SocketAddress address(String address) {
+        if (!address.isEmpty() && address.chars().allMatch(Character::isDigit)) {
+            return new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(address));
+        }
+        return UnixDomainSocketAddress.of(address);
+    }
+
+    // Method to bind the address and start accepting sessions in the background
+    public void start(String address) throws IOException {
+        SocketAddress local = address(address);
+        if (local instanceof UnixDomainSocketAddress unix) {
+            // A socket file left behind by an earlier run would make the bind fail
+            socketFile = unix.getPath();
+            Files.deleteIfExists(socketFile);
+            server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        } else {
+            server = ServerSocketChannel.open();
+        }
+        server.bind(local, ACCEPT_BACKLOG);
+
+        Thread acceptor = new Thread(this::accept, "session-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    // Method to accept connections until the server is closed. A failed accept only costs
+    // that one connection.
+    private void accept() {
+        try {
+            while (true) {
+                SocketChannel connection;
+                try {
+                    connection = server.accept();
+                } catch (ClosedChannelException e) {
+                    return;
+                } catch (IOException e) {
+                    System.err.println("Accepting a session failed: " + e.getMessage());
+                    Thread.sleep(ACCEPT_RETRY_MILLIS);
+                    continue;
+                }
+                startSession(connection);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closed.countDown();
+        }
+    }
+
+    private void startSession(SocketChannel connection) {
+        try {
+            // Responses are small and each one waits on the next command, so do not delay them
+            if (socketFile == null) connection.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        } catch (IOException e) {
+            System.err.println("Starting a session failed: " + e.getMessage());
+            try {
+                connection.close();
+            } catch (IOException ignored) {
+                // Already broken
+            }
+            return;
+        }
+
+        connections.add(connection);
+        Thread session = new Thread(null, () -> serve(connection),
+                "session-" + sessionCount.incrementAndGet(), SESSION_STACK_SIZE);
+        session.setDaemon(true);
+        session.start();
+    }
+
+    private void serve(SocketChannel connection) {
+        try (connection;
+             BufferedReader in = new BufferedReader(new InputStreamReader(
+                     Channels.newInputStream(connection), StandardCharsets.UTF_8));
+             PrintStream out = new PrintStream(new BufferedOutputStream(
+                     Channels.newOutputStream(connection)), false, StandardCharsets.UTF_8)) {
+            events.bind(quiet ? BankEventSink.NONE : new ConsoleEventSink(out));
+            CommandSession session = new CommandSession(bank, out);
+            out.println("Enter a command (type 'exit' to quit): ");
+            out.println();
+            out.flush();
+
+            String command;
+            boolean open = true;
+            while (open && (command = in.readLine()) != null) {
+                try {
+                    open = session.handle(command);
+                } catch (RuntimeException e) {
+                    // A failing command is reported to its client; the session carries on
+                    System.err.println("Command '" + command + "' failed: " + e);
+                    out.println("Error: the command could not be processed");
+                }
+                out.println();
+                out.flush();
+            }
+        } catch (IOException e) {
+            // A client that drops its connection only ends its own session
+        } finally {
+            events.unbind();
+            connections.remove(connection);
+        }
+    }
+
+    // Method to block until the server is closed
+    public void awaitClose() throws InterruptedException {
+        closed.await();
+    }
+
+    // Method to stop accepting, drop every open session and remove the socket file
+    @Override
+    public void close() {
+        try {
+            if (server != null) server.close();
+            for (SocketChannel connection : connections) connection.close();
+            if (socketFile != null) Files.deleteIfExists(socketFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
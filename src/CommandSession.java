@@ -0,0 +1,319 @@
+import java.io.PrintStream;
+import java.util.Arrays;
+import bankingSystem.*;
+
+// CommandSession class
+// Processes the command grammar one line at a time. A session is either at the top level
+// or has one account holder or employee open until its 'close'.
+public class CommandSession {
+    private enum State { TOP_LEVEL, ACCOUNT, EMPLOYEE }
+
+    private final Bank bank;
+    private final PrintStream out;
+    private final CommandTokens parts = new CommandTokens();
+    private State state = State.TOP_LEVEL;
+    private String name;
+    private Account account;
+
+    public CommandSession(Bank bank, PrintStream out) {
+        this.bank = bank;
+        this.out = out;
+    }
+
+    // Method to process one line; returns false once the session has exited
+    public boolean handle(String command) {
+        switch (state) {
+            case TOP_LEVEL -> {
+                if (command.equalsIgnoreCase("exit")) {
+                    out.println("Exiting the bank application. Goodbye!");
+                    return false;
+                }
+                processCommand(command);
+            }
+            case ACCOUNT -> {
+                if (processAccountCommand(command)) state = State.TOP_LEVEL;
+            }
+            case EMPLOYEE -> {
+                if (processEmployeeCommand(command)) state = State.TOP_LEVEL;
+            }
+        }
+        return true;
+    }
+
+    private void open(State state, String name) {
+        this.state = state;
+        this.name = name;
+        // The account is resolved once here, so its commands skip the holder lookup
+        this.account = state == State.ACCOUNT ? bank.getAccount(name) : null;
+    }
+
+    // Method to process the input command
+    private void processCommand(String command) {
+        parts.split(command);
+
+        switch (parts.lowerCase(0)) {
+            case "create":
+                if (parts.length() == 4 && !bank.isEmployee(parts.get(1))) {
+                    String name = parts.get(1);
+                    String accountType = parts.get(2);
+
+                    try {
+                        double initialDeposit = parts.amount(3);
+                        // Only a newly created account is opened, never one that failed or already existed
+                        if (bank.createAccount(name, accountType, initialDeposit) != null) open(State.ACCOUNT, name);
+                    } catch (NumberFormatException e) {
+                        out.println("Invalid initial deposit format.");
+                    }
+
+                } else {
+                    out.println("Invalid 'create' command format or invalid employee name.");
+                }
+                break;
+
+            case "open":
+                if (parts.length() == 2) {
+                    String name = parts.get(1);
+
+                    // Process account or employee commands based on the name
+                    if (bank.isEmployee(name)) {
+                        if(bank.isLoanRequestPending())
+                            out.println(name + " active, there are loan approvals pending");
+                        else out.println(name + " active");
+                        bank.addOperation(command, name);
+                        open(State.EMPLOYEE, name);
+                    } else {
+                        if(bank.isAccountExist(name)) {
+                            out.println("Welcome back, " + name);
+                            bank.addOperation(command, name);
+                            open(State.ACCOUNT, name);
+                        }
+                        else out.println("Account Name Doesn't Exist.");
+                    }
+                } else {
+                    out.println("Invalid 'open' command format.");
+                }
+                break;
+
+            case "inc":
+                if (parts.length() == 1) {
+                    bank.incrementYear();
+                } else {
+                    out.println("Invalid 'increment' command format.");
+                }
+                break;
+
+            default:
+                out.println("Unknown command: " + command);
+                break;
+        }
+    }
+
+    // Method to process account command
+    private boolean processAccountCommand(String command) {
+        parts.split(command);
+
+        switch (parts.lowerCase(0)) {
+            case "deposit":
+                if (parts.length() == 2) {
+
+                    try {
+                        double amount = parts.amount(1);
+                        bank.addOperation(command, name);
+                        account.deposit(amount, bank);
+                    } catch (NumberFormatException e) {
+                        out.println("Invalid deposit amount format.");
+                    }
+
+                } else {
+                    out.println("Invalid 'deposit' command format.");
+                }
+                break;
+
+            case "withdraw":
+                if (parts.length() == 2) {
+
+                    try {
+                        double amount = parts.amount(1);
+                        bank.addOperation(command, name);
+                        account.withdraw(amount, bank);
+                    } catch (NumberFormatException e) {
+                        out.println("Invalid withdraw amount format.");
+                    }
+
+                } else {
+                    out.println("Invalid 'withdraw' command format.");
+                }
+                break;
+
+            case "request":
+                if (parts.length() == 2) {
+
+                    try {
+                        double amount = parts.amount(1);
+                        bank.addOperation(command, name);
+                        account.requestLoan(amount, bank);
+                    } catch (NumberFormatException e) {
+                        out.println("Invalid loan request amount format.");
+                    }
+
+                } else {
+                    out.println("Invalid 'request' command format.");
+                }
+                break;
+
+            case "transfer":
+                if (parts.length() == 3) {
+
+                    try {
+                        double amount = parts.amount(2);
+                        bank.addOperation(command, name);
+                        account.transfer(parts.get(1), amount, bank);
+                    } catch (NumberFormatException e) {
+                        out.println("Invalid transfer amount format.");
+                    }
+
+                } else {
+                    out.println("Invalid 'transfer' command format.");
+                }
+                break;
+
+            case "query":
+                if (parts.length() == 1) {
+                    bank.addOperation(command, name);
+                    account.queryBalance(bank);
+                } else {
+                    out.println("Invalid 'query' command format.");
+                }
+                break;
+
+            case "close":
+                bank.addOperation(command, name);
+                out.println("Transaction for " + name + " closed");
+                return true;
+
+            default:
+                out.println("Unknown command: " + command);
+                break;
+        }
+
+        return false;
+    }
+
+    // Method to process employee command. Denied operations are reported by the employee
+    // and left out of the history.
+    private boolean processEmployeeCommand(String command) {
+        parts.split(command);
+        Employee employee = bank.getEmployee(name);
+
+        switch (parts.lowerCase(0)) {
+            case "lookup":
+                if (parts.length() == 2) {
+                    String accountHolder = parts.get(1);
+                    if (employee.permits(EmployeeOperation.LOOKUP)) bank.addOperation(command, name);
+                    employee.lookup(accountHolder, bank);
+                } else {
+                    out.println("Invalid 'lookup' command format.");
+                }
+                break;
+
+            case "approve":
+                if (parts.length() == 2 && parts.get(1).equalsIgnoreCase("loan")) {
+                    if (employee.permits(EmployeeOperation.APPROVE_LOAN)) bank.addOperation(command, name);
+                    employee.approveLoan(bank);
+                } else {
+                    out.println("Invalid 'approve loan' command format.");
+                }
+                break;
+
+            case "change":
+                if (parts.length() == 3) {
+
+                    try {
+                        double newRate = parts.amount(2);
+                        if (employee.permits(EmployeeOperation.CHANGE_INTEREST_RATE)) bank.addOperation(command, name);
+                        employee.changeInterestRate(parts.get(1), newRate, bank);
+                    } catch (NumberFormatException e) {
+                        out.println("Invalid interest rate format.");
+                    }
+
+                } else {
+                    out.println("Invalid 'change interest rate' command format.");
+                }
+                break;
+
+            case "see":
+                if (parts.length() == 1) {
+                    if (employee.permits(EmployeeOperation.SEE_INTERNAL_FUND)) bank.addOperation(command, name);
+                    employee.seeInternalFund(bank);
+                } else {
+                    out.println("Invalid 'see' command format.");
+                }
+                break;
+
+            case "close":
+                bank.addOperation(command, name);
+                out.println("Operations for " + name + " closed");
+                return true;
+
+            default:
+                out.println("Unknown command: " + command);
+                break;
+        }
+
+        return false;
+    }
+}
+
+
+// CommandTokens class
+// Splits a line on single spaces like String.split(" ") (trailing empty tokens dropped),
+// but only records token offsets; substrings are made on demand and amounts are parsed
+// without a regex.
+class CommandTokens {
+    private String line = "";
+    private int[] starts = new int[8];
+    private int[] ends = new int[8];
+    private int count;
+
+    void split(String line) {
+        this.line = line;
+        count = 0;
+
+        int start = 0;
+        for (int i = 0; i <= line.length(); i++) {
+            if (i == line.length() || line.charAt(i) == ' ') {
+                if (count == starts.length) {
+                    starts = Arrays.copyOf(starts, count * 2);
+                    ends = Arrays.copyOf(ends, count * 2);
+                }
+                starts[count] = start;
+                ends[count] = i;
+                count++;
+                start = i + 1;
+            }
+        }
+
+        // Like String.split, drop trailing empty tokens but keep at least one
+        while (count > 1 && starts[count - 1] == ends[count - 1]) count--;
+    }
+
+    int length() { return count; }
+
+    String get(int index) { return line.substring(starts[index], ends[index]); }
+
+    String lowerCase(int index) { return get(index).toLowerCase(); }
+
+    // Method to parse an amount such as 1,000.50 with the thousands separators skipped
+    double amount(int index) {
+        int start = starts[index], end = ends[index];
+        int comma = line.indexOf(',', start);
+        if (comma < 0 || comma >= end) return Double.parseDouble(line.substring(start, end));
+
+        StringBuilder digits = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            char c = line.charAt(i);
+            if (c != ',') digits.append(c);
+        }
+        return Double.parseDouble(digits.toString());
+    }
+}
@@ -1,248 +1,139 @@
-import java.util.*;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import bankingSystem.*;
 
 public class Main {
-    public static void main(String[] args) {
-        System.out.println("Enter a command (type 'exit' to quit): ");
-
-        Bank bank = new Bank();
-        Scanner scanner = new Scanner(System.in);
-        Set<String> employees = new HashSet<>(Arrays.asList("MD", "O1", "O2", "C1", "C2", "C3", "C4", "C5"));
-
-        while (true) {
-            String command = scanner.nextLine();
-
-            if (command.equalsIgnoreCase("exit")) {
-                System.out.println("Exiting the bank application. Goodbye!");
-                break;
+    private static final long SNAPSHOT_INTERVAL_SECONDS = 60;
+    private static final int BATCH_BUFFER_SIZE = 1 << 16;
+    private static final long METRICS_INTERVAL_SECONDS = 10;
+
+    // Options: --journal <directory> [every|batched|none] keeps state across runs,
+    //          --batch <file|-> replays a command file (or stdin) with buffered output,
+    //          --quiet drops the bank's own messages and keeps only the session's,
+    //          --loan-priority <age|amount|type> sets the order loans are approved in,
+    //          --coalesce-loans merges a holder's repeated loan requests into one,
+    //          --lazy-accrual charges year-end interest to an account when it is next used,
+    //          --serve <port|socket path> serves many sessions at once instead of one on stdin,
+    //          --metrics [file] publishes metrics over JMX and, given a file, dumps them there periodically,
+    //          --roles <file> adds employee roles or changes their permissions (lines like "A = lookup, see")
+    public static void main(String[] args) throws IOException {
+        Path journalDirectory = null;
+        String syncPolicy = "every";
+        String batchSource = null;
+        boolean quiet = false;
+        String loanPriority = "age";
+        boolean coalesceLoans = false;
+        boolean lazyAccrual = false;
+        String serveAddress = null;
+        boolean metrics = false;
+        Path metricsFile = null;
+        Path rolesFile = null;
+
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--journal") && i + 1 < args.length) {
+                journalDirectory = Path.of(args[++i]);
+                if (i + 1 < args.length && !args[i + 1].startsWith("--")) syncPolicy = args[++i];
+            } else if (args[i].equals("--batch") && i + 1 < args.length) {
+                batchSource = args[++i];
+            } else if (args[i].equals("--quiet")) {
+                quiet = true;
+            } else if (args[i].equals("--loan-priority") && i + 1 < args.length) {
+                loanPriority = args[++i];
+            } else if (args[i].equals("--coalesce-loans")) {
+                coalesceLoans = true;
+            } else if (args[i].equals("--lazy-accrual")) {
+                lazyAccrual = true;
+            } else if (args[i].equals("--serve") && i + 1 < args.length) {
+                serveAddress = args[++i];
+            } else if (args[i].equals("--metrics")) {
+                metrics = true;
+                if (i + 1 < args.length && !args[i + 1].startsWith("--")) metricsFile = Path.of(args[++i]);
+            } else if (args[i].equals("--roles") && i + 1 < args.length) {
+                rolesFile = Path.of(args[++i]);
             }
-
-            processCommand(command, bank, employees, scanner);
         }
 
-        scanner.close();
-        bank.printOperationList();
-    }
-
-    // Method to process the input command
-    private static void processCommand(String command, Bank bank, Set<String> employees, Scanner scanner) {
-        String[] parts = command.split(" ");
-
-        switch (parts[0].toLowerCase()) {
-            case "create":
-                if (parts.length == 4 && !employees.contains(parts[1].toUpperCase())) {
-                    String name = parts[1];
-                    String accountType = parts[2];
-
-                    try {
-                        double initialDeposit = Double.parseDouble(parts[3].replaceAll(",", ""));
-                        bank.createAccount(name, accountType, initialDeposit);
-                        processAccountCommands(scanner, bank, name);
-                    } catch (NumberFormatException e) {
-                        System.out.println("Invalid initial deposit format.");
-                    }
-
-                } else {
-                    System.out.println("Invalid 'create' command format or invalid employee name.");
-                }
-                break;
-
-            case "open":
-                if (parts.length == 2) {
-                    String name = parts[1];
-
-                    // Process account or employee commands based on the name
-                    if (employees.contains(name.toUpperCase())) {
-                        if(bank.isLoanRequestPending())
-                            System.out.println(name + " active, there are loan approvals pending");
-                        else System.out.println(name + " active");
-                        bank.addOperation(command, name);
-                        processEmployeeCommands(scanner, bank, name);
-                    } else {
-                        if(bank.isAccountExist(name)) {
-                            System.out.println("Welcome back, " + name);
-                            bank.addOperation(command, name);
-                            processAccountCommands(scanner, bank, name);
-                        }
-                        else System.out.println("Account Name Doesn't Exist.");
-                    }
-                } else {
-                    System.out.println("Invalid 'open' command format.");
-                }
-                break;
-
-            case "inc":
-                if (parts.length == 1) {
-                    bank.incrementYear();
-                } else {
-                    System.out.println("Invalid 'increment' command format.");
-                }
-                break;
+        if (batchSource != null) {
+            // Bank and account output goes through System.out, so buffer it for the whole run
+            System.setOut(new PrintStream(new BufferedOutputStream(
+                    new FileOutputStream(FileDescriptor.out), BATCH_BUFFER_SIZE), false));
+        } else if (serveAddress == null) {
+            System.out.println("Enter a command (type 'exit' to quit): ");
+        }
 
-            default:
-                System.out.println("Unknown command: " + command);
-                break;
+        BankEventSink events = quiet ? BankEventSink.NONE : new ConsoleEventSink();
+        SessionEventSink sessionEvents = null;
+        if (serveAddress != null) events = sessionEvents = new SessionEventSink(events);
+        Bank bank = journalDirectory != null
+                ? Bank.recover(journalDirectory, syncPolicy(syncPolicy), events)
+                : new Bank(events);
+        bank.setLoanPriority(loanPriority(loanPriority));
+        bank.setLoanCoalescing(coalesceLoans);
+        if (rolesFile != null) bank.loadRoles(rolesFile);
+        if (lazyAccrual) bank.setAccrualMode(AccrualMode.LAZY);
+        if (journalDirectory != null) bank.scheduleSnapshots(SNAPSHOT_INTERVAL_SECONDS);
+        if (metrics) bank.metrics().register("main");
+        if (metricsFile != null) bank.metrics().scheduleDump(metricsFile, METRICS_INTERVAL_SECONDS);
+
+        if (serveAddress != null) {
+            serve(bank, sessionEvents, quiet, serveAddress);
+            return;
         }
-    }
 
-    // Method to process account commands
-    private static void processAccountCommands(Scanner scanner, Bank bank, String name) {
-        while (true) {
-            String input = scanner.nextLine();
-            boolean close;
+        try (BufferedReader reader = open(batchSource)) {
+            CommandSession session = new CommandSession(bank, System.out);
+            String command;
 
-            close = processAccountCommand(input, bank, name);
-            if (close) break;
+            while ((command = reader.readLine()) != null) {
+                if (!session.handle(command)) break;
+            }
         }
-    }
 
-    // Method to process employee commands
-    private static void processEmployeeCommands(Scanner scanner, Bank bank, String name) {
-        while (true) {
-            String input = scanner.nextLine();
-            boolean close;
+        bank.printOperationList();
+        bank.close();
+        System.out.flush();
+    }
 
-            close = processEmployeeCommand(input, bank, name);
-            if (close) break;
+    // Method to serve sessions until the process is stopped; the bank is closed on the way out
+    private static void serve(Bank bank, SessionEventSink events, boolean quiet,
+                              String address) throws IOException {
+        CommandServer server = new CommandServer(bank, events, quiet);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            bank.close();
+        }));
+        server.start(address);
+        System.out.println("Serving sessions on " + address);
+
+        try {
+            server.awaitClose();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 
-    // Method to process account command
-    private static boolean processAccountCommand(String command, Bank bank, String name) {
-        String[] parts = command.split(" ");
-        Account account = bank.getAccount(name);
-
-        switch (parts[0].toLowerCase()) {
-            case "deposit":
-                if (parts.length == 2) {
-
-                    try {
-                        double amount = Double.parseDouble(parts[1].replaceAll(",", ""));
-                        bank.addOperation(command, name);
-                        account.deposit(amount, bank);
-                    } catch (NumberFormatException e) {
-                        System.out.println("Invalid deposit amount format.");
-                    }
-
-                } else {
-                    System.out.println("Invalid 'deposit' command format.");
-                }
-                break;
-
-            case "withdraw":
-                if (parts.length == 2) {
-
-                    try {
-                        double amount = Double.parseDouble(parts[1].replaceAll(",", ""));
-                        bank.addOperation(command, name);
-                        account.withdraw(amount, bank);
-                    } catch (NumberFormatException e) {
-                        System.out.println("Invalid withdraw amount format.");
-                    }
-
-                } else {
-                    System.out.println("Invalid 'withdraw' command format.");
-                }
-                break;
-
-            case "request":
-                if (parts.length == 2) {
-
-                    try {
-                        double amount = Double.parseDouble(parts[1].replaceAll(",", ""));
-                        bank.addOperation(command, name);
-                        account.requestLoan(amount, bank);
-                    } catch (NumberFormatException e) {
-                        System.out.println("Invalid loan request amount format.");
-                    }
-
-                } else {
-                    System.out.println("Invalid 'request' command format.");
-                }
-                break;
-
-            case "query":
-                if (parts.length == 1) {
-                    bank.addOperation(command, name);
-                    account.queryBalance(bank);
-                } else {
-                    System.out.println("Invalid 'query' command format.");
-                }
-                break;
-
-            case "close":
-                bank.addOperation(command, name);
-                System.out.println("Transaction for " + name + " closed");
-                return true;
-
-            default:
-                System.out.println("Unknown command: " + command);
-                break;
+    private static BufferedReader open(String batchSource) throws IOException {
+        if (batchSource == null || batchSource.equals("-")) {
+            return new BufferedReader(new InputStreamReader(System.in), BATCH_BUFFER_SIZE);
         }
-
-        return false;
+        return Files.newBufferedReader(Path.of(batchSource), StandardCharsets.UTF_8);
     }
 
-    // Method to process employee command
-    private static boolean processEmployeeCommand(String command, Bank bank, String name) {
-        String[] parts = command.split(" ");
-        Employee employee = bank.getEmployee(name);
-
-        switch (parts[0].toLowerCase()) {
-            case "lookup":
-                if (parts.length == 2) {
-                    String accountHolder = parts[1];
-                    bank.addOperation(command, name);
-                    employee.lookup(accountHolder, bank);
-                } else {
-                    System.out.println("Invalid 'lookup' command format.");
-                }
-                break;
-
-            case "approve":
-                if (parts.length == 2 && parts[1].equalsIgnoreCase("loan")) {
-                    bank.addOperation(command, name);
-                    employee.approveLoan(bank);
-                } else {
-                    System.out.println("Invalid 'approve loan' command format.");
-                }
-                break;
-
-            case "change":
-                if (parts.length == 3) {
-
-                    try {
-                        double newRate = Double.parseDouble(parts[2].replaceAll(",", ""));
-                        bank.addOperation(command, name);
-                        employee.changeInterestRate(parts[1], newRate, bank);
-                    } catch (NumberFormatException e) {
-                        System.out.println("Invalid interest rate format.");
-                    }
-
-                } else {
-                    System.out.println("Invalid 'change interest rate' command format.");
-                }
-                break;
-
-            case "see":
-                if (parts.length == 1) {
-                    bank.addOperation(command, name);
-                    employee.seeInternalFund(bank);
-                } else {
-                    System.out.println("Invalid 'see' command format.");
-                }
-                break;
-
-            case "close":
-                bank.addOperation(command, name);
-                System.out.println("Operations for " + name + " closed");
-                return true;
-
-            default:
-                System.out.println("Unknown command: " + command);
-                break;
-        }
+    private static Journal.SyncPolicy syncPolicy(String name) {
+        return switch (name.toLowerCase()) {
+            case "batched" -> Journal.SyncPolicy.BATCHED;
+            case "none" -> Journal.SyncPolicy.NONE;
+            default -> Journal.SyncPolicy.EVERY_OPERATION;
+        };
+    }
 
-        return false;
+    private static LoanPriority loanPriority(String name) {
+        return switch (name.toLowerCase()) {
+            case "amount" -> LoanPriority.AMOUNT;
+            case "type" -> LoanPriority.ACCOUNT_TYPE;
+            default -> LoanPriority.AGE;
+        };
     }
 }
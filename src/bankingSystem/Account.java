@@ -2,118 +2,163 @@ package bankingSystem;
 
 
 // Account class
+// A thin handle; balances and limits live in the bank's AccountStore under this account's id
 abstract public class Account {
-    protected String accountHolder;
-    protected double balance;
-    protected double loanAmount;
-    protected double maxLoan = Double.MAX_VALUE;
+    protected final String accountHolder;
+    protected final int id;
+    protected final AccountStore store;
 
-    Account(String accountHolder, double initialDeposit) {
+    Account(String accountHolder, int id, AccountStore store) {
         this.accountHolder = accountHolder;
-        this.balance = initialDeposit;
-        this.loanAmount = 0;
+        this.id = id;
+        this.store = store;
     }
 
     public abstract void deposit(double amount, Bank bank);
 
     public abstract void withdraw(double amount, Bank bank);
 
-    public void requestLoan(double amount, Bank bank) { bank.requestLoan(accountHolder, amount); }
+    // Called by Bank while holding this account's monitor
+    abstract boolean canDeposit(long amount);
 
-    public double queryBalance(Bank bank) { return bank.queryBalance(accountHolder); }
+    abstract boolean canWithdraw(long amount);
 
-    double getBalance() { return balance; }
+    // Method to check the deposit rules and that the balance can take the amount without overflowing
+    final boolean canCredit(long amount) { return Money.add(getBalance(), amount) != Long.MAX_VALUE && canDeposit(amount); }
 
-    void setBalance(double balance) { this.balance = balance; }
+    abstract Bank.AccountType getType();
 
-    double getLoanAmount() { return loanAmount; }
+    public void requestLoan(double amount, Bank bank) { bank.requestLoan(this, Money.of(amount)); }
 
-    void setLoanAmount(double loanAmount) { this.loanAmount += loanAmount; }
+    public void transfer(String toHolder, double amount, Bank bank) { bank.transfer(this, toHolder, Money.of(amount)); }
 
-    double getMaxLoan() { return maxLoan; }
+    public double queryBalance(Bank bank) { return bank.queryBalance(this); }
+
+    long getBalance() { return store.balance(id); }
+
+    void setBalance(long balance) { store.setBalance(id, balance); }
+
+    // Balance minus what prepared transfers have reserved; withdrawal rules apply to this
+    long getAvailableBalance() { return store.balance(id) - store.held(id); }
+
+    long getHeld() { return store.held(id); }
+
+    void setHeld(long amount) { store.setHeld(id, amount); }
+
+    long getLoanAmount() { return store.loanAmount(id); }
+
+    void setLoanAmount(long loanAmount) { store.setLoanAmount(id, loanAmount); }
+
+    long getPendingLoans() { return store.pendingLoans(id); }
+
+    void setPendingLoans(long amount) { store.setPendingLoans(id, amount); }
+
+    long getMaxLoan() { return store.maxLoan(id); }
 }
 
 
 // SavingsAccount class
 class SavingsAccount extends Account {
-    SavingsAccount(String accountHolder, double initialDeposit) {
-        super(accountHolder, initialDeposit);
-        super.maxLoan = 10000;
+    private static final long MIN_BALANCE = Money.of(1000);
+
+    SavingsAccount(String accountHolder, long initialDeposit, AccountStore store) {
+        super(accountHolder, store.allocate(Bank.AccountType.SAVINGS_ACCOUNT, initialDeposit, Money.of(10000)), store);
     }
 
     @Override
     public void deposit(double amount, Bank bank) {
-        bank.deposit(accountHolder, amount);
-        System.out.println(amount + "$ deposited; current balance " + balance + "$");
+        if (bank.deposit(this, Money.of(amount))) {
+            bank.events().publish(BankEvent.DEPOSITED, accountHolder, null, amount, Money.toDouble(getBalance()));
+        } else bank.events().publish(BankEvent.INVALID_TRANSACTION, accountHolder, null, amount, Money.toDouble(getBalance()));
     }
 
     @Override
     public void withdraw(double amount, Bank bank) {
-        if (balance - amount >= 1000) {
-            bank.withdraw(accountHolder, amount);
-            System.out.println(amount + "$ withdrawn; current balance " + balance + "$");
-        } else System.out.println("Invalid transaction; current balance " + balance + "$");
+        if (bank.withdraw(this, Money.of(amount))) {
+            bank.events().publish(BankEvent.WITHDRAWN, accountHolder, null, amount, Money.toDouble(getBalance()));
+        } else bank.events().publish(BankEvent.INVALID_TRANSACTION, accountHolder, null, amount, Money.toDouble(getBalance()));
     }
+
+    @Override
+    boolean canDeposit(long amount) { return true; }
+
+    @Override
+    boolean canWithdraw(long amount) { return getAvailableBalance() - amount >= MIN_BALANCE; }
+
+    @Override
+    Bank.AccountType getType() { return Bank.AccountType.SAVINGS_ACCOUNT; }
 }
 
 
 // StudentAccount class
 class StudentAccount extends Account {
-    private final double MAX_WITHDRAWAL;
+    private final long MAX_WITHDRAWAL;
 
-    StudentAccount(String accountHolder, double initialDeposit) {
-        super(accountHolder, initialDeposit);
-        super.maxLoan = 1000;
-        MAX_WITHDRAWAL = 1000;
+    StudentAccount(String accountHolder, long initialDeposit, AccountStore store) {
+        super(accountHolder, store.allocate(Bank.AccountType.STUDENT_ACCOUNT, initialDeposit, Money.of(1000)), store);
+        MAX_WITHDRAWAL = Money.of(1000);
     }
 
     @Override
     public void deposit(double amount, Bank bank) {
-        bank.deposit(accountHolder, amount);
-        System.out.println(amount + "$ deposited; current balance " + balance + "$");
+        if (bank.deposit(this, Money.of(amount))) {
+            bank.events().publish(BankEvent.DEPOSITED, accountHolder, null, amount, Money.toDouble(getBalance()));
+        } else bank.events().publish(BankEvent.INVALID_TRANSACTION, accountHolder, null, amount, Money.toDouble(getBalance()));
     }
 
     @Override
     public void withdraw(double amount, Bank bank) {
-        if (amount <= MAX_WITHDRAWAL && balance - amount >= 0) {
-            bank.withdraw(accountHolder, amount);
-            System.out.println(amount + "$ withdrawn; current balance " + balance + "$");
-        } else System.out.println("Invalid transaction; current balance " + balance + "$");
+        if (bank.withdraw(this, Money.of(amount))) {
+            bank.events().publish(BankEvent.WITHDRAWN, accountHolder, null, amount, Money.toDouble(getBalance()));
+        } else bank.events().publish(BankEvent.INVALID_TRANSACTION, accountHolder, null, amount, Money.toDouble(getBalance()));
     }
+
+    @Override
+    boolean canDeposit(long amount) { return true; }
+
+    @Override
+    boolean canWithdraw(long amount) { return amount <= MAX_WITHDRAWAL && getAvailableBalance() - amount >= 0; }
+
+    @Override
+    Bank.AccountType getType() { return Bank.AccountType.STUDENT_ACCOUNT; }
 }
 
 
 // FixedDepositAccount class
 class FixedDepositAccount extends Account {
-    private static final double MIN_INITIAL_DEPOSIT = 100000;
-    private final double MIN_DEPOSIT = 50000;
-    private boolean hasReachedMaturityPeriod;
-
-    FixedDepositAccount(String accountHolder, double initialDeposit) {
-        super(accountHolder, initialDeposit);
-        super.maxLoan = 100000;
-        hasReachedMaturityPeriod = false;
+    private static final long MIN_INITIAL_DEPOSIT = Money.of(100000);
+    private final long MIN_DEPOSIT = Money.of(50000);
+
+    FixedDepositAccount(String accountHolder, long initialDeposit, AccountStore store) {
+        super(accountHolder, store.allocate(Bank.AccountType.FIXED_DEPOSIT_ACCOUNT, initialDeposit, Money.of(100000)), store);
     }
 
     @Override
     public void deposit(double amount, Bank bank) {
-        if (amount >= MIN_DEPOSIT) {
-            bank.deposit(accountHolder, amount);
-            System.out.println(amount + "$ deposited; current balance " + balance + "$");
-        } else System.out.println("Invalid transaction; current balance " + balance + "$");
+        if (bank.deposit(this, Money.of(amount))) {
+            bank.events().publish(BankEvent.DEPOSITED, accountHolder, null, amount, Money.toDouble(getBalance()));
+        } else bank.events().publish(BankEvent.INVALID_TRANSACTION, accountHolder, null, amount, Money.toDouble(getBalance()));
     }
 
     @Override
     public void withdraw(double amount, Bank bank) {
-        if (hasReachedMaturityPeriod && balance - amount >= 0) {
-            bank.withdraw(accountHolder, amount);
-            System.out.println(amount + "$ withdrawn; current balance " + balance + "$");
-        } else System.out.println("Invalid transaction; current balance " + balance + "$");
+        if (bank.withdraw(this, Money.of(amount))) {
+            bank.events().publish(BankEvent.WITHDRAWN, accountHolder, null, amount, Money.toDouble(getBalance()));
+        } else bank.events().publish(BankEvent.INVALID_TRANSACTION, accountHolder, null, amount, Money.toDouble(getBalance()));
     }
 
-    static double getMinInitialDeposit() { return MIN_INITIAL_DEPOSIT; }
+    @Override
+    boolean canDeposit(long amount) { return amount >= MIN_DEPOSIT; }
+
+    @Override
+    boolean canWithdraw(long amount) { return store.isMatured(id) && getAvailableBalance() - amount >= 0; }
+
+    @Override
+    Bank.AccountType getType() { return Bank.AccountType.FIXED_DEPOSIT_ACCOUNT; }
+
+    static long getMinInitialDeposit() { return MIN_INITIAL_DEPOSIT; }
 
     void setHasReachedMaturityPeriod(boolean hasReachedMaturityPeriod) {
-        this.hasReachedMaturityPeriod = hasReachedMaturityPeriod;
+        store.setMatured(id, hasReachedMaturityPeriod);
     }
 }
\ No newline at end of file
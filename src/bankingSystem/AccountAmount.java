@@ -0,0 +1,6 @@
+package bankingSystem;
+
+
+// AccountAmount record
+// One row of a balance or loan query
+public record AccountAmount(String accountHolder, double amount) {}
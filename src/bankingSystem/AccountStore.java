@@ -0,0 +1,273 @@
+package bankingSystem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+
+// AccountStore class
+// Keeps account state in parallel primitive columns indexed by a dense account id.
+// Amounts are in Money minor units.
+// Columns are split into fixed-size pages, so growing the store never moves existing data
+// and readers only need the (volatile) page directory to reach a slot.
+// The setters also keep running totals per account type, so reports never need a scan.
+class AccountStore {
+    static final int PAGE_SHIFT = 14;
+    static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private static final Bank.AccountType[] TYPES = Bank.AccountType.values();
+    private static final byte MATURED = 1;
+
+    private volatile long[][] balances = new long[0][];
+    private volatile long[][] loanAmounts = new long[0][];
+    private volatile long[][] pendingLoans = new long[0][];
+    private volatile long[][] heldAmounts = new long[0][];
+    private volatile long[][] maxLoans = new long[0][];
+    private volatile byte[][] types = new byte[0][];
+    private volatile byte[][] flags = new byte[0][];
+    private volatile int[][] accruedYears = new int[0][];
+    private volatile int size;
+
+    // Indexed by type ordinal; setters are called under the account's monitor, so the old
+    // value they subtract is the one they replace
+    private final LongAdder[] balanceTotals = adders();
+    private final LongAdder[] loanTotals = adders();
+    private final LongAdder[] accountCounts = adders();
+    private final LongAdder[] maturedCounts = adders();
+
+    // Optional ordered indexes over balances and loans; null while indexing is off
+    private volatile BalanceIndex balanceIndex;
+    private volatile BalanceIndex loanIndex;
+
+    private static LongAdder[] adders() {
+        LongAdder[] adders = new LongAdder[TYPES.length];
+        for (int i = 0; i < adders.length; i++) adders[i] = new LongAdder();
+        return adders;
+    }
+
+    // Method to reserve the next id and initialise its columns
+    synchronized int allocate(Bank.AccountType type, long balance, long maxLoan) {
+        int id = size;
+        int page = id >>> PAGE_SHIFT;
+
+        if (page == balances.length) {
+            balances = addPage(balances, new long[PAGE_SIZE]);
+            loanAmounts = addPage(loanAmounts, new long[PAGE_SIZE]);
+            pendingLoans = addPage(pendingLoans, new long[PAGE_SIZE]);
+            heldAmounts = addPage(heldAmounts, new long[PAGE_SIZE]);
+            maxLoans = addPage(maxLoans, new long[PAGE_SIZE]);
+            types = addPage(types, new byte[PAGE_SIZE]);
+            flags = addPage(flags, new byte[PAGE_SIZE]);
+            accruedYears = addPage(accruedYears, new int[PAGE_SIZE]);
+        }
+
+        int slot = id & PAGE_MASK;
+        balances[page][slot] = balance;
+        loanAmounts[page][slot] = 0;
+        pendingLoans[page][slot] = 0;
+        heldAmounts[page][slot] = 0;
+        maxLoans[page][slot] = maxLoan;
+        types[page][slot] = (byte) type.ordinal();
+        flags[page][slot] = 0;
+        accruedYears[page][slot] = 0;
+        accountCounts[type.ordinal()].increment();
+        balanceTotals[type.ordinal()].add(balance);
+        if (isIndexed()) {
+            balanceIndex.add(id, balance);
+            loanIndex.add(id, 0);
+        }
+
+        size = id + 1;
+        return id;
+    }
+
+    private static long[][] addPage(long[][] directory, long[] page) {
+        long[][] grown = Arrays.copyOf(directory, directory.length + 1);
+        grown[directory.length] = page;
+        return grown;
+    }
+
+    private static byte[][] addPage(byte[][] directory, byte[] page) {
+        byte[][] grown = Arrays.copyOf(directory, directory.length + 1);
+        grown[directory.length] = page;
+        return grown;
+    }
+
+    private static int[][] addPage(int[][] directory, int[] page) {
+        int[][] grown = Arrays.copyOf(directory, directory.length + 1);
+        grown[directory.length] = page;
+        return grown;
+    }
+
+    int size() { return size; }
+
+    // Methods to copy the first count entries of a column into one contiguous array
+    long[] copyBalances(int count) { return copy(balances, count); }
+
+    long[] copyLoanAmounts(int count) { return copy(loanAmounts, count); }
+
+    byte[] copyTypes(int count) { return copy(types, count); }
+
+    byte[] copyFlags(int count) { return copy(flags, count); }
+
+    private static long[] copy(long[][] directory, int count) {
+        long[] column = new long[count];
+        for (int page = 0; page << PAGE_SHIFT < count; page++) {
+            int from = page << PAGE_SHIFT;
+            System.arraycopy(directory[page], 0, column, from, Math.min(PAGE_SIZE, count - from));
+        }
+        return column;
+    }
+
+    private static byte[] copy(byte[][] directory, int count) {
+        byte[] column = new byte[count];
+        for (int page = 0; page << PAGE_SHIFT < count; page++) {
+            int from = page << PAGE_SHIFT;
+            System.arraycopy(directory[page], 0, column, from, Math.min(PAGE_SIZE, count - from));
+        }
+        return column;
+    }
+
+    void setFlags(int id, byte value) {
+        byte[] page = flags[id >>> PAGE_SHIFT];
+        int slot = id & PAGE_MASK;
+        countMatured(id, page[slot], value);
+        page[slot] = value;
+    }
+
+    long balance(int id) { return balances[id >>> PAGE_SHIFT][id & PAGE_MASK]; }
+
+    void setBalance(int id, long balance) {
+        long[] page = balances[id >>> PAGE_SHIFT];
+        int slot = id & PAGE_MASK;
+        balanceTotals[typeOrdinal(id)].add(balance - page[slot]);
+        BalanceIndex index = balanceIndex;
+        if (index != null) index.move(id, page[slot], balance);
+        page[slot] = balance;
+    }
+
+    long loanAmount(int id) { return loanAmounts[id >>> PAGE_SHIFT][id & PAGE_MASK]; }
+
+    void setLoanAmount(int id, long loanAmount) {
+        long[] page = loanAmounts[id >>> PAGE_SHIFT];
+        int slot = id & PAGE_MASK;
+        loanTotals[typeOrdinal(id)].add(loanAmount - page[slot]);
+        BalanceIndex index = loanIndex;
+        if (index != null) index.move(id, page[slot], loanAmount);
+        page[slot] = loanAmount;
+    }
+
+    // Total of this account's loan requests still waiting for a decision
+    long pendingLoans(int id) { return pendingLoans[id >>> PAGE_SHIFT][id & PAGE_MASK]; }
+
+    void setPendingLoans(int id, long amount) { pendingLoans[id >>> PAGE_SHIFT][id & PAGE_MASK] = amount; }
+
+    // Part of the balance reserved by prepared transfers; not persisted, a crash drops the reservation
+    long held(int id) { return heldAmounts[id >>> PAGE_SHIFT][id & PAGE_MASK]; }
+
+    void setHeld(int id, long amount) { heldAmounts[id >>> PAGE_SHIFT][id & PAGE_MASK] = amount; }
+
+    // Last year whose year-end has been applied to this account's balance and loan
+    int accruedYear(int id) { return accruedYears[id >>> PAGE_SHIFT][id & PAGE_MASK]; }
+
+    void setAccruedYear(int id, int year) { accruedYears[id >>> PAGE_SHIFT][id & PAGE_MASK] = year; }
+
+    long maxLoan(int id) { return maxLoans[id >>> PAGE_SHIFT][id & PAGE_MASK]; }
+
+    Bank.AccountType type(int id) { return TYPES[typeOrdinal(id)]; }
+
+    private int typeOrdinal(int id) { return types[id >>> PAGE_SHIFT][id & PAGE_MASK]; }
+
+    boolean isMatured(int id) { return (flags[id >>> PAGE_SHIFT][id & PAGE_MASK] & MATURED) != 0; }
+
+    void setMatured(int id, boolean matured) {
+        byte[] page = flags[id >>> PAGE_SHIFT];
+        int slot = id & PAGE_MASK;
+        byte value = (byte) (matured ? page[slot] | MATURED : page[slot] & ~MATURED);
+        countMatured(id, page[slot], value);
+        page[slot] = value;
+    }
+
+    private void countMatured(int id, byte before, byte after) {
+        int change = (after & MATURED) - (before & MATURED);
+        if (change != 0) maturedCounts[typeOrdinal(id)].add(change);
+    }
+
+    // Method to build or drop the balance and loan indexes. Excludes allocate; the caller
+    // keeps the other setters quiet meanwhile.
+    synchronized void setIndexed(boolean indexed) {
+        if (!indexed) {
+            balanceIndex = null;
+            loanIndex = null;
+        } else if (balanceIndex == null) {
+            loanIndex = buildIndex(loanAmounts);
+            balanceIndex = buildIndex(balances);
+        }
+    }
+
+    boolean isIndexed() { return balanceIndex != null; }
+
+    // Queries over the balance and loan columns; they use the indexes when kept, else scan
+    void largestBalances(int k, BalanceIndex.Visitor visitor) {
+        BalanceIndex index = balanceIndex;
+        if (index != null) index.largest(k, visitor);
+        else BalanceIndex.largest(balances, size, k, visitor);
+    }
+
+    void largestLoans(int k, BalanceIndex.Visitor visitor) {
+        BalanceIndex index = loanIndex;
+        if (index != null) index.largest(k, visitor);
+        else BalanceIndex.largest(loanAmounts, size, k, visitor);
+    }
+
+    void balanceRange(long from, long to, BalanceIndex.Visitor visitor) {
+        BalanceIndex index = balanceIndex;
+        if (index != null) index.range(from, to, visitor);
+        else BalanceIndex.range(balances, size, from, to, visitor);
+    }
+
+    private BalanceIndex buildIndex(long[][] column) {
+        BalanceIndex index = new BalanceIndex();
+        for (int id = 0; id < size; id++) index.add(id, column[id >>> PAGE_SHIFT][id & PAGE_MASK]);
+        return index;
+    }
+
+    // Running totals per account type, in Money minor units where they are amounts
+    long totalBalance(Bank.AccountType type) { return balanceTotals[type.ordinal()].sum(); }
+
+    long totalLoans(Bank.AccountType type) { return loanTotals[type.ordinal()].sum(); }
+
+    long accountCount(Bank.AccountType type) { return accountCounts[type.ordinal()].sum(); }
+
+    long maturedCount(Bank.AccountType type) { return maturedCounts[type.ordinal()].sum(); }
+
+    // Method to recompute the running totals from the columns and describe every one that
+    // disagrees; an empty list means they all match. Needs the columns to be quiet meanwhile.
+    List<String> verifyTotals() {
+        long[] balanceSums = new long[TYPES.length], loanSums = new long[TYPES.length];
+        long[] counts = new long[TYPES.length], matured = new long[TYPES.length];
+        for (int id = 0; id < size; id++) {
+            int type = typeOrdinal(id);
+            balanceSums[type] += balance(id);
+            loanSums[type] += loanAmount(id);
+            counts[type]++;
+            if (isMatured(id)) matured[type]++;
+        }
+
+        List<String> mismatches = new ArrayList<>();
+        for (Bank.AccountType type : TYPES) {
+            int i = type.ordinal();
+            check(mismatches, type, "balance", balanceTotals[i].sum(), balanceSums[i]);
+            check(mismatches, type, "loans", loanTotals[i].sum(), loanSums[i]);
+            check(mismatches, type, "accounts", accountCounts[i].sum(), counts[i]);
+            check(mismatches, type, "matured", maturedCounts[i].sum(), matured[i]);
+        }
+        return mismatches;
+    }
+
+    private static void check(List<String> mismatches, Bank.AccountType type, String total, long running, long scanned) {
+        if (running != scanned) mismatches.add(type + " " + total + ": running " + running + ", scanned " + scanned);
+    }
+}
@@ -0,0 +1,10 @@
+package bankingSystem;
+
+
+// AccrualMode enum
+// When year-end interest, loan interest and service charges reach the balances.
+// Both give the same balances; they differ only in when the work is done.
+public enum AccrualMode {
+    EAGER,  // every account is brought up to date at each year-end
+    LAZY    // an account catches up on the year-ends it missed the next time it is used
+}
@@ -0,0 +1,51 @@
+package bankingSystem;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.function.IntConsumer;
+
+
+// AccrualSchedule class
+// What an account needs to catch up on year-ends it has not been charged for yet: the
+// rate table that was in force at each year-end, and the years at which fixed deposits
+// mature. Maturities sit in a priority queue, so a year-end only touches the accounts that
+// actually mature then.
+final class AccrualSchedule {
+    private static final int ID_BITS = 32;
+
+    // rates[year - firstYear] holds the rates used by the year-end that started year
+    private RateTable[] rates = new RateTable[8];
+    private int firstYear = -1;
+    private int lastYear = -1;
+
+    // Entries are (year << 32 | id), so the queue orders them by maturity year
+    private final PriorityQueue<Long> maturities = new PriorityQueue<>();
+
+    // Method to record the rates of the year-end that started year. Runs with the write lock held.
+    void yearEnded(int year, RateTable yearRates) {
+        if (firstYear < 0) firstYear = year;
+        int index = year - firstYear;
+        if (index == rates.length) rates = Arrays.copyOf(rates, index * 2);
+        rates[index] = yearRates;
+        lastYear = year;
+    }
+
+    // Rates of the year-end that started year; only asked for years that have ended
+    RateTable rates(int year) {
+        if (year < firstYear || year > lastYear) throw new IllegalStateException("No rates recorded for year " + year);
+        return rates[year - firstYear];
+    }
+
+    synchronized void scheduleMaturity(int id, int year) {
+        maturities.add((long) year << ID_BITS | id);
+    }
+
+    // Method to hand every account maturing by year to matured, removing it from the queue
+    synchronized void matureDue(int year, IntConsumer matured) {
+        Long next;
+        while ((next = maturities.peek()) != null && (int) (next >>> ID_BITS) <= year) {
+            maturities.poll();
+            matured.accept((int) (long) next);
+        }
+    }
+}
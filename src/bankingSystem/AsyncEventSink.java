@@ -0,0 +1,110 @@
+package bankingSystem;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+
+// AsyncEventSink class
+// Multi-producer ring buffer in front of another sink. Publishers claim a slot, copy the
+// arguments into preallocated columns and return; one background thread hands the events
+// to the delegate in claim order. A full ring makes publishers wait rather than drop events;
+// they spin briefly, then park, and give up once the sink is closed or its thread has died.
+public class AsyncEventSink implements BankEventSink, AutoCloseable {
+    private static final long IDLE_PARK_NANOS = 50_000;
+    // Set in claimed by close, so no slot can be claimed once the sink is closing
+    private static final long CLOSED = Long.MIN_VALUE;
+    private static final int FULL_SPINS = 100;
+    private static final long FULL_PARK_NANOS = 10_000;
+
+    private final BankEventSink delegate;
+    private final int mask;
+    private final BankEvent[] events;
+    private final String[] subjects;
+    private final String[] details;
+    private final double[] amounts;
+    private final double[] balances;
+    private final AtomicLongArray published;
+    private final AtomicLong claimed;
+    private final AtomicLong consumed;
+    private final Thread consumer;
+
+    public AsyncEventSink(BankEventSink delegate, int capacity) {
+        if (Integer.bitCount(capacity) != 1) throw new IllegalArgumentException("Capacity must be a power of two");
+
+        this.delegate = delegate;
+        this.mask = capacity - 1;
+        this.events = new BankEvent[capacity];
+        this.subjects = new String[capacity];
+        this.details = new String[capacity];
+        this.amounts = new double[capacity];
+        this.balances = new double[capacity];
+        this.published = new AtomicLongArray(capacity);
+        this.claimed = new AtomicLong();
+        this.consumed = new AtomicLong();
+        for (int i = 0; i < capacity; i++) published.set(i, -1);
+
+        this.consumer = new Thread(this::drain, "bank-events");
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    @Override
+    public void publish(BankEvent event, String subject, String detail, double amount, double balance) {
+        // Checking for close and claiming the slot are one step, so every claimed slot is drained
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence < 0) throw new IllegalStateException("The event sink is closed");
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        for (int spins = 0; sequence - consumed.get() > mask; spins++) {
+            if (!consumer.isAlive()) throw new IllegalStateException("The event thread has stopped");
+            if (spins < FULL_SPINS) Thread.onSpinWait();
+            else LockSupport.parkNanos(FULL_PARK_NANOS);
+        }
+
+        int slot = (int) sequence & mask;
+        events[slot] = event;
+        subjects[slot] = subject;
+        details[slot] = detail;
+        amounts[slot] = amount;
+        balances[slot] = balance;
+        published.lazySet(slot, sequence);
+    }
+
+    private void drain() {
+        long sequence = consumed.get();
+        while (true) {
+            long claims = claimed.get();
+            if (claims < 0 && sequence == (claims & ~CLOSED)) return;
+
+            int slot = (int) sequence & mask;
+            if (published.get(slot) != sequence) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+
+            // A failing delegate loses that one event, not the thread every publisher waits on
+            try {
+                delegate.publish(events[slot], subjects[slot], details[slot], amounts[slot], balances[slot]);
+            } catch (RuntimeException e) {
+                System.err.println("Event delivery failed: " + e);
+            }
+            subjects[slot] = null;
+            details[slot] = null;
+            consumed.lazySet(++sequence);
+        }
+    }
+
+    // Method to deliver everything published so far and stop the background thread
+    @Override
+    public void close() {
+        claimed.getAndUpdate(claims -> claims | CLOSED);
+        try {
+            consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
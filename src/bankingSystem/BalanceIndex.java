@@ -0,0 +1,91 @@
+package bankingSystem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+
+// BalanceIndex class
+// Ordered secondary index over one amount column of the AccountStore (balances or loans),
+// kept as (amount, id) keys in a concurrent skip list. The store moves an account's key
+// whenever it changes that column, so top-K and range queries only touch the accounts they
+// return. A move is a remove and an add, so a query running alongside may miss an account
+// that is being updated. The static methods answer the same queries by scanning the column,
+// for when the index is off.
+final class BalanceIndex {
+    // Key class
+    private record Key(long amount, int id) implements Comparable<Key> {
+        @Override
+        public int compareTo(Key other) {
+            int order = Long.compare(amount, other.amount);
+            return order != 0 ? order : Integer.compare(id, other.id);
+        }
+    }
+
+    interface Visitor { void visit(int id, long amount); }
+
+    private final NavigableSet<Key> keys = new ConcurrentSkipListSet<>();
+
+    void add(int id, long amount) { keys.add(new Key(amount, id)); }
+
+    // Method to re-key an account. Called under the account's monitor, so from is the amount
+    // the index holds for it.
+    void move(int id, long from, long to) {
+        if (from == to) return;
+        keys.remove(new Key(from, id));
+        keys.add(new Key(to, id));
+    }
+
+    // Method to visit the k largest amounts, largest first
+    void largest(int k, Visitor visitor) {
+        Iterator<Key> descending = keys.descendingIterator();
+        for (int i = 0; i < k && descending.hasNext(); i++) {
+            Key key = descending.next();
+            visitor.visit(key.id, key.amount);
+        }
+    }
+
+    // Method to visit every amount in [from, to), smallest first
+    void range(long from, long to, Visitor visitor) {
+        if (from >= to) return;
+        for (Key key : keys.subSet(new Key(from, Integer.MIN_VALUE), new Key(to, Integer.MIN_VALUE))) {
+            visitor.visit(key.id, key.amount);
+        }
+    }
+
+    // Method to visit the k largest of the first size amounts of a column, keeping only the
+    // current k largest in a heap while scanning
+    static void largest(long[][] column, int size, int k, Visitor visitor) {
+        if (k <= 0) return;
+        PriorityQueue<Key> top = new PriorityQueue<>(Math.min(k, Math.max(size, 1)));
+        for (int id = 0; id < size; id++) {
+            long amount = column[id >>> AccountStore.PAGE_SHIFT][id & (AccountStore.PAGE_SIZE - 1)];
+            if (top.size() < k) {
+                top.add(new Key(amount, id));
+            } else if (amount >= top.peek().amount) {
+                // Ids only grow, so on a tie the later account is the larger key, as in the index
+                top.poll();
+                top.add(new Key(amount, id));
+            }
+        }
+
+        Key[] largestFirst = new Key[top.size()];
+        for (int i = largestFirst.length - 1; i >= 0; i--) largestFirst[i] = top.poll();
+        for (Key key : largestFirst) visitor.visit(key.id, key.amount);
+    }
+
+    // Method to visit the amounts of a column in [from, to), smallest first, by scanning it
+    static void range(long[][] column, int size, long from, long to, Visitor visitor) {
+        List<Key> matches = new ArrayList<>();
+        for (int id = 0; id < size; id++) {
+            long amount = column[id >>> AccountStore.PAGE_SHIFT][id & (AccountStore.PAGE_SIZE - 1)];
+            if (amount >= from && amount < to) matches.add(new Key(amount, id));
+        }
+        Collections.sort(matches);
+        for (Key key : matches) visitor.visit(key.id, key.amount);
+    }
+}
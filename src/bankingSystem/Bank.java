@@ -1,285 +1,1171 @@
 package bankingSystem;
 
+import java.math.RoundingMode;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 
 // Bank class
 public class Bank {
-    private record Operation(String details, String accountHolder, int year) {}
+    // One side of a two-phase transfer that has voted yes and awaits the coordinator's decision
+    private record TransferLeg(Account account, long amount, boolean debit) {}
 
-    private record Loan(String accountHolder, double amount) {}
+    // Amounts are in Money minor units, rates in Money rate units
+    private final long INITIAL_FUNDS = Money.of(1000000);
+    private final long SERVICE_CHARGE = Money.of(500);
+    private final long LOAN_INTEREST_RATE = Money.rate(0.10);
+    private final RoundingMode INTEREST_ROUNDING = RoundingMode.HALF_EVEN;
+    private final RoundingMode LOAN_INTEREST_ROUNDING = RoundingMode.CEILING;
+    private static final long JOURNAL_BATCH_MILLIS = 5;
+    private static final int LOAN_APPROVAL_BATCH = 100;
+    // A single atomic, so a loan approval can check and deduct in one compare-and-set
+    private final AtomicLong internalFunds;
+    private volatile int year;
+    private final HolderRegistry accounts;
+    private final AccountStore store;
+    private final LoanQueue loanRequests;
+    private final AccrualSchedule accrual;
 
-    private final double INITIAL_FUNDS = 1000000;
-    private final double SERVICE_CHARGE = 500;
-    private final double LOAN_INTEREST_RATE = 0.10;
-    private double internalFunds;
-    private int year;
-    private boolean loanRequestPending;
-    private final Map<String, Account> accounts;
-    private final List<Loan> loanRequests;
-    private final Map<String, Employee> employees;
-    private final List<Operation> operations;
+    // Replaced whole on every change, so readers never lock and never see a partial update
+    private final AtomicReference<RateTable> rates;
+    private volatile AccrualMode accrualMode;
+    private final EmployeeRegistry employees;
+    private final Role.Roles roles;
+    private final Map<Long, TransferLeg> preparedLegs;
+    private final OperationLog operations;
 
-    private enum AccountType {
-        SAVINGS_ACCOUNT(0.10),
-        STUDENT_ACCOUNT(0.05),
-        FIXED_DEPOSIT_ACCOUNT(0.15);
+    // Account operations hold the read lock plus the account's own monitor,
+    // year-end holds the write lock so it never observes a half-applied operation
+    private final ReadWriteLock yearLock;
 
-        private double interestRate;
+    // Set once recovery has replayed the existing log; null when running in memory only
+    private volatile Journal journal;
+    private ScheduledExecutorService snapshotScheduler;
+    private final BankEventSink events;
+    private final BankMetrics metrics;
 
-        AccountType(double interestRate) {
-            this.interestRate = interestRate;
+    enum AccountType {
+        SAVINGS_ACCOUNT(0.10, true),
+        STUDENT_ACCOUNT(0.05, false),
+        FIXED_DEPOSIT_ACCOUNT(0.15, true);
+
+        // Each bank starts from these and keeps its own changes in its RateTable
+        final long defaultRate;
+        private final boolean serviceCharged;
+
+        AccountType(double defaultRate, boolean serviceCharged) {
+            this.defaultRate = Money.rate(defaultRate);
+            this.serviceCharged = serviceCharged;
         }
     }
 
-    private enum EmployeeType {
-        OFFICER(2),
-        CASHIER(5);
+    // Accounts per leaf task of the year-end pass
+    private static final int YEAR_END_BATCH = AccountStore.PAGE_SIZE;
 
-        private int count;
+    // Staff every bank starts with
+    private static final int INITIAL_OFFICERS = 2;
+    private static final int INITIAL_CASHIERS = 5;
 
-        EmployeeType(int count) {
-            this.count = count;
-        }
+    public Bank() {
+        this(new ConsoleEventSink());
     }
 
-    public Bank() {
-        this.internalFunds = INITIAL_FUNDS;
+    public Bank(BankEventSink events) {
+        this.events = events;
+        this.metrics = new BankMetrics(this);
+        this.internalFunds = new AtomicLong(INITIAL_FUNDS);
         this.year = 0;
-        this.loanRequestPending = false;
-        this.accounts = new HashMap<>();
-        this.loanRequests = new ArrayList<>();
-        this.employees = new HashMap<>();
-        this.operations = new ArrayList<>();
-
-        employees.put("MD", new ManagingDirector("MD"));
-        for(int i = 1; i <= EmployeeType.OFFICER.count; i++) { employees.put("O" + i, new Officer("O" + i)); }
-        for(int i = 1; i <= EmployeeType.CASHIER.count; i++) { employees.put("C" + i, new Cashier("C" + i)); }
-
-        System.out.println("Bank Created; MD, O1, O2, C1, C2, C3, C4, C5 created");
-    }
-
-    public void createAccount(String accountHolder, String accountType, double initialDeposit) {
-        if (!accounts.containsKey(accountHolder)) {
-            Account account;
-            switch (accountType.toLowerCase()) {
-                case "savings":
-                    account = new SavingsAccount(accountHolder, initialDeposit);
-                    internalFunds += initialDeposit;
-                    break;
-                case "student":
-                    account = new StudentAccount(accountHolder, initialDeposit);
-                    internalFunds += initialDeposit;
-                    break;
-                case "fixed deposit":
-                    if (initialDeposit >= FixedDepositAccount.getMinInitialDeposit()) {
-                        account = new FixedDepositAccount(accountHolder, initialDeposit);
-                        internalFunds += initialDeposit;
+        this.accounts = new HolderRegistry();
+        this.store = new AccountStore();
+        this.loanRequests = new LoanQueue(LoanPriority.AGE);
+        this.accrual = new AccrualSchedule();
+        this.rates = new AtomicReference<>(RateTable.defaults());
+        this.accrualMode = AccrualMode.EAGER;
+        this.employees = new EmployeeRegistry();
+        this.roles = Role.Roles.defaults();
+        this.preparedLegs = new ConcurrentHashMap<>();
+        this.operations = OperationLog.temporary();
+        this.yearLock = new ReentrantReadWriteLock();
+
+        employees.add(new Employee(Role.MANAGING_DIRECTOR, roles.get(Role.MANAGING_DIRECTOR)));
+        employees.hire(roles.get(Role.OFFICER), INITIAL_OFFICERS);
+        employees.hire(roles.get(Role.CASHIER), INITIAL_CASHIERS);
+
+        events.publish(BankEvent.BANK_CREATED, "MD, O1, O2, C1, C2, C3, C4, C5", null, 0, 0);
+    }
+
+    // Method to rebuild a bank from its journal directory and keep journaling to it
+    public static Bank recover(Path directory, Journal.SyncPolicy policy) {
+        return recover(directory, policy, new ConsoleEventSink());
+    }
+
+    public static Bank recover(Path directory, Journal.SyncPolicy policy, BankEventSink events) {
+        Bank bank = new Bank(events);
+        Snapshot snapshot = Snapshot.loadLatest(directory);
+        long fromSegment = 0;
+        if (snapshot != null) {
+            bank.restore(snapshot);
+            fromSegment = snapshot.segment;
+        }
+        Journal.replay(directory, fromSegment, bank::replay);
+        bank.journal = Journal.open(directory, policy, JOURNAL_BATCH_MILLIS);
+        return bank;
+    }
+
+    // Method to write a snapshot and drop the journal segments it covers.
+    // Transactions only wait while the balance, loan and flag columns are copied (a few bytes
+    // per account), not while interest is settled, holders are gathered or the file is written.
+    public synchronized void snapshot() {
+        if (journal == null) throw new IllegalStateException("Snapshots need a journaled bank; use Bank.recover");
+
+        // Work that does not need a consistent cut is done before it, alongside transactions
+        settleEach(store.size());
+        String[] holders = copyHolders(new String[0], store.size());
+
+        Snapshot snapshot;
+        yearLock.writeLock().lock();
+        try {
+            snapshot = captureSnapshot(journal.rotate(), holders);
+        } finally {
+            yearLock.writeLock().unlock();
+        }
+
+        Path directory = journal.getDirectory();
+        snapshot.write(directory);
+        journal.deleteSegmentsBefore(snapshot.segment);
+        Snapshot.deleteBefore(directory, snapshot.segment);
+    }
+
+    // Method to take snapshots periodically on a background thread
+    public synchronized void scheduleSnapshots(long intervalSeconds) {
+        if (snapshotScheduler != null) snapshotScheduler.shutdown();
+        snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "bank-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshotScheduler.scheduleWithFixedDelay(() -> {
+            try {
+                snapshot();
+            } catch (RuntimeException e) {
+                System.err.println("Snapshot failed: " + e.getMessage());
+            }
+        }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    // Runs with the write lock held; only accounts created or years ended since the holders
+    // were gathered and the accounts settled are left to catch up on
+    private Snapshot captureSnapshot(long segment, String[] knownHolders) {
+        int count = store.size();
+        settleAll(count);
+        String[] holders = copyHolders(knownHolders, count);
+
+        LoanQueue.Loan[] pending = loanRequests.toArray();
+        String[] loanHolders = new String[pending.length];
+        long[] loanAmounts = new long[pending.length];
+        for (int i = 0; i < pending.length; i++) {
+            loanHolders[i] = pending[i].accountHolder;
+            loanAmounts[i] = pending[i].amount;
+        }
+
+        // Every role is kept, hired from or not, so roles loaded from a file survive the snapshot
+        Map<Role, Integer> staff = employees.staffCounts();
+        List<Role> defined = new ArrayList<>(roles.all());
+        String[] roleCodes = new String[defined.size()];
+        int[] rolePermissions = new int[defined.size()];
+        int[] staffCounts = new int[defined.size()];
+        for (int i = 0; i < defined.size(); i++) {
+            roleCodes[i] = defined.get(i).code;
+            rolePermissions[i] = defined.get(i).permissions();
+            staffCounts[i] = staff.getOrDefault(defined.get(i), 0);
+        }
+
+        return new Snapshot(segment, year, internalFunds.get(), rates.get().toArray(),
+                roleCodes, rolePermissions, staffCounts,
+                holders, store.copyTypes(count), store.copyBalances(count), store.copyLoanAmounts(count),
+                store.copyFlags(count), loanHolders, loanAmounts);
+    }
+
+    // Method to extend a list of holders by id; ids are never reused, so earlier entries stay valid.
+    // Accounts register in id order, so the list stops at the first one still being created.
+    private String[] copyHolders(String[] known, int count) {
+        String[] holders = Arrays.copyOf(known, count);
+        for (int id = known.length; id < count; id++) {
+            Account account = accounts.get(id);
+            if (account == null) return Arrays.copyOf(holders, id);
+            holders[id] = account.accountHolder;
+        }
+        return holders;
+    }
+
+    private void restore(Snapshot snapshot) {
+        year = snapshot.year;
+        internalFunds.set(snapshot.internalFunds);
+        rates.set(RateTable.of(snapshot.interestRates));
+
+        for (int i = 0; i < snapshot.roleCodes.length; i++) {
+            Role role = roles.define(snapshot.roleCodes[i], snapshot.rolePermissions[i]);
+            employees.hireUpTo(role, snapshot.staff[i]);
+        }
+
+        for (int id = 0; id < snapshot.holders.length; id++) {
+            String holder = snapshot.holders[id];
+            Account account = newAccount(snapshot.type(id), holder, snapshot.balances[id]);
+            store.setLoanAmount(account.id, snapshot.loanAmounts[id]);
+            store.setFlags(account.id, snapshot.flags[id]);
+            accounts.register(holder, () -> account);
+        }
+
+        for (int i = 0; i < snapshot.loanHolders.length; i++) {
+            String holder = snapshot.loanHolders[i];
+            Account account = getAccount(holder);
+            account.setPendingLoans(account.getPendingLoans() + snapshot.loanAmountsRequested[i]);
+            loanRequests.add(account, holder, snapshot.loanAmountsRequested[i]);
+        }
+    }
+
+    // Re-applies a journaled change without validation, output or journaling
+    private void replay(Journal.Entry entry) {
+        Account account = entry.accountHolder() == null ? null : getAccount(entry.accountHolder());
+        if (account != null) settle(account.id);
+        switch (entry.kind()) {
+            case CREATE_ACCOUNT -> {
+                accounts.register(entry.accountHolder(),
+                        () -> newAccount(entry.accountType(), entry.accountHolder(), entry.amount()));
+                internalFunds.addAndGet(entry.amount());
+            }
+            case DEPOSIT -> {
+                account.setBalance(account.getBalance() + entry.amount());
+                internalFunds.addAndGet(entry.amount());
+            }
+            case WITHDRAW -> {
+                account.setBalance(account.getBalance() - entry.amount());
+                internalFunds.addAndGet(-entry.amount());
+            }
+            case REQUEST_LOAN -> {
+                loanRequests.add(account, entry.accountHolder(), entry.amount());
+                account.setPendingLoans(account.getPendingLoans() + entry.amount());
+            }
+            case COALESCE_LOAN -> {
+                loanRequests.merge(account, entry.amount());
+                account.setPendingLoans(account.getPendingLoans() + entry.amount());
+            }
+            case APPROVE_LOAN -> {
+                loanRequests.remove(account, entry.amount());
+                account.setPendingLoans(account.getPendingLoans() - entry.amount());
+                account.setLoanAmount(account.getLoanAmount() + entry.amount());
+                account.setBalance(account.getBalance() + entry.amount());
+                internalFunds.addAndGet(-entry.amount());
+            }
+            case TRANSFER -> {
+                Account receiver = getAccount(entry.counterparty());
+                settle(receiver.id);
+                account.setBalance(account.getBalance() - entry.amount());
+                receiver.setBalance(receiver.getBalance() + entry.amount());
+            }
+            case REJECT_LOAN -> {
+                loanRequests.remove(account, entry.amount());
+                account.setPendingLoans(account.getPendingLoans() - entry.amount());
+            }
+            case CHANGE_INTEREST_RATE -> rates.set(rates.get().with(entry.accountType(), entry.amount()));
+            case INCREMENT_YEAR -> {
+                year++;
+                applyYearEnd();
+            }
+            case DEFINE_ROLE -> roles.define(entry.role(), entry.permissions());
+            case HIRE_EMPLOYEES -> {
+                Role role = roles.get(entry.role());
+                if (role == null) role = roles.define(entry.role(), entry.permissions());
+                employees.hire(role, (int) entry.amount());
+            }
+        }
+    }
+
+    private void commit(long sequence) {
+        if (sequence != 0) journal.commit(sequence);
+    }
+
+    // Method to open an account; returns it, or null if the type, deposit or name was refused
+    public Account createAccount(String accountHolder, String accountType, double initialDeposit) {
+        // Every holder must be journaled and snapshotted later, so a name neither can hold is refused now
+        if (!Journal.fitsName(accountHolder)) {
+            events.publish(BankEvent.HOLDER_NAME_TOO_LONG, null, accountType, 0, 0);
+            return null;
+        }
+
+        long deposit = Money.of(initialDeposit);
+        AccountType type;
+        switch (accountType.toLowerCase()) {
+            case "savings":
+                type = AccountType.SAVINGS_ACCOUNT;
+                break;
+            case "student":
+                type = AccountType.STUDENT_ACCOUNT;
+                break;
+            case "fixed deposit":
+                if (deposit >= FixedDepositAccount.getMinInitialDeposit()) {
+                    type = AccountType.FIXED_DEPOSIT_ACCOUNT;
+                } else {
+                    events.publish(BankEvent.FIXED_DEPOSIT_TOO_LOW, accountHolder, accountType, initialDeposit, 0);
+                    return null;
+                }
+                break;
+            default:
+                events.publish(BankEvent.INVALID_ACCOUNT_TYPE, accountHolder, accountType, 0, 0);
+                return null;
+        }
+
+        long sequence = 0;
+        Account created;
+        yearLock.readLock().lock();
+        try {
+            // The store slot is only allocated when the name is actually free
+            created = accounts.register(accountHolder, () -> newAccount(type, accountHolder, deposit));
+
+            if (created != null) {
+                internalFunds.addAndGet(deposit);
+                if (journal != null) sequence = journal.createAccount(accountHolder, type, deposit);
+                events.publish(BankEvent.ACCOUNT_CREATED, accountHolder, accountType, initialDeposit, initialDeposit);
+            } else {
+                events.publish(BankEvent.ACCOUNT_EXISTS, accountHolder, accountType, 0, 0);
+            }
+        } finally {
+            yearLock.readLock().unlock();
+        }
+        commit(sequence);
+        return created;
+    }
+
+    // Called with at least the read lock held, so the year cannot move meanwhile
+    private Account newAccount(AccountType type, String accountHolder, long initialDeposit) {
+        Account account = switch (type) {
+            case SAVINGS_ACCOUNT -> new SavingsAccount(accountHolder, initialDeposit, store);
+            case STUDENT_ACCOUNT -> new StudentAccount(accountHolder, initialDeposit, store);
+            case FIXED_DEPOSIT_ACCOUNT -> new FixedDepositAccount(accountHolder, initialDeposit, store);
+        };
+        store.setAccruedYear(account.id, year);
+        if (type == AccountType.FIXED_DEPOSIT_ACCOUNT) accrual.scheduleMaturity(account.id, year + 1);
+        return account;
+    }
+
+    // Method to create an employee of the role with the given code ("O", "C" or one loaded
+    // with loadRoles). There is only one managing director.
+    public Employee createEmployee(String type) {
+        List<Employee> created = createEmployees(type, 1);
+        return created.isEmpty() ? null : created.get(0);
+    }
+
+    // Method to onboard count employees of a role at once. Their numbers are reserved as one
+    // block, so concurrent calls interleave freely; the creation is reported as a single event.
+    public List<Employee> createEmployees(String type, int count) {
+        Role role = roles.get(type);
+        if (role == null || role.code.equals(Role.MANAGING_DIRECTOR) || count < 1) {
+            events.publish(BankEvent.INVALID_EMPLOYEE_TYPE, type, null, 0, 0);
+            return List.of();
+        }
+
+        // Under the lock so a snapshot counts the hire exactly when its record is in an older segment
+        long sequence = 0;
+        List<Employee> hired;
+        yearLock.readLock().lock();
+        try {
+            hired = employees.hire(role, count);
+            if (journal != null) sequence = journal.hireEmployees(role.code, role.permissions(), count);
+        } finally {
+            yearLock.readLock().unlock();
+        }
+        commit(sequence);
+
+        String names = count == 1 ? hired.get(0).name : hired.get(0).name + " to " + hired.get(count - 1).name;
+        events.publish(BankEvent.EMPLOYEE_CREATED, names, null, 0, 0);
+        return hired;
+    }
+
+    // Method to add roles, or change the permissions of existing ones, from a properties file
+    // mapping role codes to operation keywords, e.g. "A = lookup, see"
+    public void loadRoles(Path file) {
+        Map<String, Integer> definitions = Role.Roles.read(file);
+
+        long sequence = 0;
+        yearLock.readLock().lock();
+        try {
+            for (Map.Entry<String, Integer> definition : definitions.entrySet()) {
+                Role role = roles.define(definition.getKey(), definition.getValue());
+                if (journal != null) sequence = journal.defineRole(role.code, role.permissions());
+            }
+        } finally {
+            yearLock.readLock().unlock();
+        }
+        commit(sequence);
+    }
+
+    // The String versions resolve the holder name; the Account versions are for callers that
+    // already hold the account (its own methods, open sessions) and skip the lookup
+    boolean deposit(String accountHolder, long amount) {
+        Account account = accounts.get(accountHolder);
+        if (account != null) return deposit(account, amount);
+
+        events.publish(BankEvent.ACCOUNT_NOT_FOUND, accountHolder, null, 0, 0);
+        return false;
+    }
+
+    boolean deposit(Account account, long amount) {
+        long start = System.nanoTime();
+        try {
+            long sequence = 0;
+            yearLock.readLock().lock();
+            try {
+                synchronized (account) {
+                    settle(account.id);
+                    if (!account.canCredit(amount)) return false;
+                    account.setBalance(account.getBalance() + amount);
+                    internalFunds.addAndGet(amount);
+                    if (journal != null) sequence = journal.deposit(account.accountHolder, amount);
+                }
+            } finally {
+                yearLock.readLock().unlock();
+            }
+            commit(sequence);
+            return true;
+        } finally {
+            metrics.record(BankMetrics.Operation.DEPOSIT, account.getType(), start);
+        }
+    }
+
+    boolean withdraw(String accountHolder, long amount) {
+        Account account = accounts.get(accountHolder);
+        if (account != null) return withdraw(account, amount);
+
+        events.publish(BankEvent.ACCOUNT_NOT_FOUND, accountHolder, null, 0, 0);
+        return false;
+    }
+
+    boolean withdraw(Account account, long amount) {
+        long start = System.nanoTime();
+        try {
+            long sequence = 0;
+            yearLock.readLock().lock();
+            try {
+                synchronized (account) {
+                    settle(account.id);
+                    if (!account.canWithdraw(amount)) return false;
+                    account.setBalance(account.getBalance() - amount);
+                    internalFunds.addAndGet(-amount);
+                    if (journal != null) sequence = journal.withdraw(account.accountHolder, amount);
+                }
+            } finally {
+                yearLock.readLock().unlock();
+            }
+            commit(sequence);
+            return true;
+        } finally {
+            metrics.record(BankMetrics.Operation.WITHDRAW, account.getType(), start);
+        }
+    }
+
+    void requestLoan(String accountHolder, long amount) {
+        Account account = accounts.get(accountHolder);
+        if (account != null) requestLoan(account, amount);
+        else events.publish(BankEvent.ACCOUNT_NOT_FOUND, accountHolder, null, 0, 0);
+    }
+
+    void requestLoan(Account account, long amount) {
+        long start = System.nanoTime();
+        try {
+            String accountHolder = account.accountHolder;
+            BankEvent outcome;
+            long sequence = 0;
+            yearLock.readLock().lock();
+            try {
+                synchronized (account) {
+                    settle(account.id);
+                    // Requests still waiting for approval count against the limit too
+                    long pending = account.getPendingLoans();
+                    if (amount + account.getLoanAmount() + pending > account.getMaxLoan()) {
+                        outcome = BankEvent.LOAN_LIMIT_EXCEEDED;
+                    } else if (amount > internalFunds.get()) {
+                        outcome = BankEvent.INSUFFICIENT_FUNDS;
                     } else {
-                        System.out.println("Error: Initial deposit for Fixed Deposit Account must be at least 100,000$");
-                        return;
+                        account.setPendingLoans(pending + amount);
+                        boolean merged = loanRequests.request(account, accountHolder, amount);
+                        if (journal != null) sequence = merged
+                                ? journal.coalesceLoan(accountHolder, amount)
+                                : journal.requestLoan(accountHolder, amount);
+                        outcome = BankEvent.LOAN_REQUESTED;
                     }
-                    break;
-                default:
-                    System.out.println("Error: Invalid account type");
-                    return;
+                }
+            } finally {
+                yearLock.readLock().unlock();
             }
-            accounts.put(accountHolder.toLowerCase(), account);
-            System.out.println(accountType + " account for " +
-                    accountHolder + " created; initial balance " + initialDeposit + "$");
-        } else {
-            System.out.println("Error: Account already exists for " + accountHolder);
+
+            if (outcome == BankEvent.LOAN_REQUESTED) commit(sequence);
+            events.publish(outcome, accountHolder, null, Money.toDouble(amount), 0);
+        } finally {
+            metrics.record(BankMetrics.Operation.REQUEST_LOAN, account.getType(), start);
         }
     }
 
-    public Employee createEmployee(String type) {
-        Employee employee;
-        switch (type.toUpperCase()) {
-            case "O" -> {
-                employee = new Officer("O" + ++EmployeeType.OFFICER.count);
-                employees.put("O" + EmployeeType.OFFICER.count, employee);
-                System.out.println("O" + EmployeeType.OFFICER.count + " created");
-                return employee;
+    // Method to apply a batch of deposits and withdrawals. Holders are resolved once, each
+    // account's rows run in their original order under a single monitor acquisition, and the
+    // internal funds are reconciled once for the whole batch. Non-positive amounts are rejected.
+    // Returns one TransactionBatch status per row.
+    public byte[] applyBatch(TransactionBatch batch) {
+        int size = batch.size();
+        byte[] statuses = new byte[size];
+        Account[] resolved = new Account[size];
+
+        // Rows sorted by (account id, row) so that each account's rows are contiguous
+        long[] order = new long[size];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            Account account = accounts.get(batch.holders[row]);
+            if (account == null) {
+                statuses[row] = TransactionBatch.ACCOUNT_NOT_FOUND;
+            } else {
+                resolved[row] = account;
+                order[count++] = (long) account.id << 32 | row;
             }
-            case "C" -> {
-                employee = new Cashier("C" + ++EmployeeType.CASHIER.count);
-                employees.put("C" + EmployeeType.CASHIER.count, employee);
-                System.out.println("C" + EmployeeType.CASHIER.count + " created");
-                return employee;
+        }
+        Arrays.sort(order, 0, count);
+
+        int applied = 0;
+        long net = 0;
+        long sequence = 0;
+        yearLock.readLock().lock();
+        try {
+            int i = 0;
+            while (i < count) {
+                Account account = resolved[(int) order[i]];
+                synchronized (account) {
+                    settle(account.id);
+                    do {
+                        int row = (int) order[i++];
+                        long amount = batch.amounts[row];
+                        boolean deposit = batch.operation(row) == TransactionBatch.Operation.DEPOSIT;
+
+                        if (amount <= 0 || !(deposit ? account.canCredit(amount) : account.canWithdraw(amount))) {
+                            statuses[row] = TransactionBatch.REJECTED;
+                            continue;
+                        }
+
+                        long change = deposit ? amount : -amount;
+                        account.setBalance(account.getBalance() + change);
+                        net += change;
+                        applied++;
+                        if (journal != null) sequence = deposit
+                                ? journal.deposit(account.accountHolder, amount)
+                                : journal.withdraw(account.accountHolder, amount);
+                    } while (i < count && resolved[(int) order[i]] == account);
+                }
             }
-            default -> {
-                System.out.println("Error: Invalid employee type");
-                return null;
+            internalFunds.addAndGet(net);
+        } finally {
+            yearLock.readLock().unlock();
+        }
+
+        commit(sequence);
+        events.publish(BankEvent.BATCH_APPLIED, null, null, applied, size);
+        return statuses;
+    }
+
+    public boolean transfer(String fromHolder, String toHolder, double amount) {
+        return transfer(fromHolder, toHolder, Money.of(amount));
+    }
+
+    // Method to move money between two accounts of this bank as one step: the sender's
+    // withdrawal rules and the receiver's deposit rules are checked and applied under both
+    // monitors, and internal funds do not change
+    boolean transfer(String fromHolder, String toHolder, long amount) {
+        Account from = accounts.get(fromHolder);
+        if (from != null) return transfer(from, toHolder, amount);
+
+        events.publish(BankEvent.ACCOUNT_NOT_FOUND, fromHolder, null, 0, 0);
+        return false;
+    }
+
+    boolean transfer(Account from, String toHolder, long amount) {
+        long start = System.nanoTime();
+        try {
+            String fromHolder = from.accountHolder;
+            Account to = accounts.get(toHolder);
+            if (to == null) {
+                events.publish(BankEvent.ACCOUNT_NOT_FOUND, toHolder, null, 0, 0);
+                return false;
+            }
+
+            // Monitors are always taken in account id order, so opposite transfers cannot deadlock
+            Account first = from.id < to.id ? from : to;
+            Account second = first == from ? to : from;
+            boolean moved = false;
+            long sequence = 0;
+            if (from != to && amount > 0) {
+                yearLock.readLock().lock();
+                try {
+                    synchronized (first) {
+                        synchronized (second) {
+                            settle(from.id);
+                            settle(to.id);
+                            moved = from.canWithdraw(amount) && to.canCredit(amount);
+                            if (moved) {
+                                from.setBalance(from.getBalance() - amount);
+                                to.setBalance(to.getBalance() + amount);
+                                if (journal != null) sequence = journal.transfer(from.accountHolder, to.accountHolder, amount);
+                            }
+                        }
+                    }
+                } finally {
+                    yearLock.readLock().unlock();
+                }
             }
+
+            commit(sequence);
+            events.publish(moved ? BankEvent.TRANSFERRED : BankEvent.TRANSFER_FAILED,
+                    fromHolder, toHolder, Money.toDouble(amount), 0);
+            return moved;
+        } finally {
+            metrics.record(BankMetrics.Operation.TRANSFER, from.getType(), start);
         }
     }
 
-    void deposit(String accountHolder, double amount) {
-        Account account = accounts.get(accountHolder.toLowerCase());
-        if (account != null) {
-            account.setBalance(account.getBalance() + amount);
-            internalFunds += amount;
-        } else {
-            System.out.println("Error: Account not found for " + accountHolder);
+    // Two-phase transfer participant, driven by ShardedBank through a ShardTransport.
+    // A debit leg reserves the amount (withdrawal rules see it as gone) but leaves the balance
+    // and internal funds alone until commit; a credit leg only checks the deposit rules.
+    boolean prepareDebit(long leg, String accountHolder, long amount) {
+        Account account = accounts.get(accountHolder);
+        if (account == null || amount <= 0) return false;
+
+        yearLock.readLock().lock();
+        try {
+            synchronized (account) {
+                settle(account.id);
+                if (!account.canWithdraw(amount)) return false;
+                account.setHeld(account.getHeld() + amount);
+                preparedLegs.put(leg, new TransferLeg(account, amount, true));
+                return true;
+            }
+        } finally {
+            yearLock.readLock().unlock();
         }
     }
 
-    void withdraw(String accountHolder, double amount) {
-        Account account = accounts.get(accountHolder.toLowerCase());
-        if (account != null) {
-            account.setBalance(account.getBalance() - amount);
-            internalFunds -= amount;
-        } else {
-            System.out.println("Error: Account not found for " + accountHolder);
+    boolean prepareCredit(long leg, String accountHolder, long amount) {
+        Account account = accounts.get(accountHolder);
+        if (account == null || amount <= 0) return false;
+
+        synchronized (account) {
+            if (!account.canCredit(amount)) return false;
         }
+        preparedLegs.put(leg, new TransferLeg(account, amount, false));
+        return true;
     }
 
-    void requestLoan(String accountHolder, double amount) {
-        Account account = accounts.get(accountHolder.toLowerCase());
-        if (account != null) {
-            if (amount + account.getLoanAmount() <= account.getMaxLoan()) {
-                if (amount <= internalFunds) {
-                    Loan loan = new Loan(accountHolder, amount);
-                    loanRequests.add(loan);
-                    loanRequestPending = true;
-                    System.out.println("Loan request successful, sent for approval");
+    // Method to apply a prepared leg; it is journaled as a plain withdrawal or deposit
+    void commitTransfer(long leg) {
+        TransferLeg prepared = preparedLegs.remove(leg);
+        if (prepared == null) return;
+
+        Account account = prepared.account();
+        long amount = prepared.amount();
+        long sequence = 0;
+        yearLock.readLock().lock();
+        try {
+            synchronized (account) {
+                settle(account.id);
+                if (prepared.debit()) {
+                    account.setHeld(account.getHeld() - amount);
+                    account.setBalance(account.getBalance() - amount);
+                    internalFunds.addAndGet(-amount);
+                    if (journal != null) sequence = journal.withdraw(account.accountHolder, amount);
                 } else {
-                    System.out.println("Error: Insufficient internal funds");
+                    account.setBalance(account.getBalance() + amount);
+                    internalFunds.addAndGet(amount);
+                    if (journal != null) sequence = journal.deposit(account.accountHolder, amount);
                 }
-            } else {
-                System.out.println("Error: Loan amount exceeds maximum loan amount");
             }
-        } else {
-            System.out.println("Error: Account not found for " + accountHolder);
+        } finally {
+            yearLock.readLock().unlock();
+        }
+        commit(sequence);
+    }
+
+    void abortTransfer(long leg) {
+        TransferLeg prepared = preparedLegs.remove(leg);
+        if (prepared == null || !prepared.debit()) return;
+
+        // Year-ends missed while the hold stood are applied first, since they spared the held amount
+        Account account = prepared.account();
+        yearLock.readLock().lock();
+        try {
+            synchronized (account) {
+                settle(account.id);
+                account.setHeld(account.getHeld() - prepared.amount());
+            }
+        } finally {
+            yearLock.readLock().unlock();
         }
     }
 
     double queryBalance(String accountHolder) {
-        Account account = accounts.get(accountHolder.toLowerCase());
-        if (account != null) {
-            if(account.getLoanAmount() == 0)
-                System.out.println("Current Balance " + account.getBalance() + "$");
-            else
-                System.out.println("Current Balance " + account.getBalance()
-                        + "$, loan " + account.getLoanAmount() + "$");
-            return account.getBalance();
-        } else {
-            System.out.println("Error: Account not found for " + accountHolder);
-            return 0;
+        Account account = accounts.get(accountHolder);
+        if (account != null) return queryBalance(account);
+
+        events.publish(BankEvent.ACCOUNT_NOT_FOUND, accountHolder, null, 0, 0);
+        return 0;
+    }
+
+    double queryBalance(Account account) {
+        long start = System.nanoTime();
+        try {
+            long balance, loanAmount;
+            yearLock.readLock().lock();
+            try {
+                synchronized (account) {
+                    settle(account.id);
+                    balance = account.getBalance();
+                    loanAmount = account.getLoanAmount();
+                }
+            } finally {
+                yearLock.readLock().unlock();
+            }
+
+            events.publish(BankEvent.BALANCE, account.accountHolder, null, Money.toDouble(loanAmount), Money.toDouble(balance));
+            return Money.toDouble(balance);
+        } finally {
+            metrics.record(BankMetrics.Operation.QUERY_BALANCE, account.getType(), start);
         }
     }
 
     double lookup(String accountHolder) {
-        Account account = accounts.get(accountHolder.toLowerCase());
+        long start = System.nanoTime();
+        Account account = accounts.get(accountHolder);
         if (account != null) {
-            System.out.println(accountHolder + "'s current balance " + account.getBalance() + "$");
-            return account.getBalance();
+            long balance;
+            yearLock.readLock().lock();
+            try {
+                synchronized (account) {
+                    settle(account.id);
+                    balance = account.getBalance();
+                }
+            } finally {
+                yearLock.readLock().unlock();
+            }
+            events.publish(BankEvent.LOOKUP, accountHolder, null, 0, Money.toDouble(balance));
+            metrics.record(BankMetrics.Operation.LOOKUP, account.getType(), start);
+            return Money.toDouble(balance);
         } else {
-            System.out.println("Error: Account not found for " + accountHolder);
+            events.publish(BankEvent.ACCOUNT_NOT_FOUND, accountHolder, null, 0, 0);
+            metrics.record(BankMetrics.Operation.LOOKUP, null, start);
             return 0;
         }
     }
 
     void approveLoan() {
-        Iterator<Loan> iterator = loanRequests.iterator();
+        approveLoan(LOAN_APPROVAL_BATCH);
+    }
+
+    // Method to decide up to max pending loans in priority order. Each loan is checked again
+    // against the live internal funds and the account's loan limit, since both may have
+    // changed since it was requested. Returns the number of loans approved.
+    int approveLoan(int max) {
+        long start = System.nanoTime();
+        try {
+            int approved = 0;
+            long sequence = 0;
+
+            for (int i = 0; i < max; i++) {
+                LoanQueue.Loan loan;
+                long amount;
+                boolean granted;
+                yearLock.readLock().lock();
+                try {
+                    // Polled under the lock so a snapshot sees the loan either pending or decided
+                    if ((loan = loanRequests.poll()) == null) break;
+                    Account account = loan.account;
+                    synchronized (account) {
+                        settle(account.id);
+                        // Read under the monitor so requests merged in before now are included
+                        amount = loan.amount;
+                        account.setPendingLoans(account.getPendingLoans() - amount);
+                        loanRequests.decided(loan);
+
+                        // The loan is paid out of the bank's own funds, reserved atomically so that
+                        // concurrent approvals cannot together spend more than there is
+                        granted = account.getLoanAmount() + amount <= account.getMaxLoan() && reserveFunds(amount);
+                        if (granted) {
+                            account.setLoanAmount(account.getLoanAmount() + amount);
+                            account.setBalance(account.getBalance() + amount);
+                            if (journal != null) sequence = journal.approveLoan(loan.accountHolder, amount);
+                        } else if (journal != null) sequence = journal.rejectLoan(loan.accountHolder, amount);
+                    }
+                } finally {
+                    yearLock.readLock().unlock();
+                }
+
+                if (granted) {
+                    approved++;
+                    events.publish(BankEvent.LOAN_APPROVED, loan.accountHolder, null, Money.toDouble(amount), 0);
+                } else events.publish(BankEvent.LOAN_REJECTED, loan.accountHolder, null, Money.toDouble(amount), 0);
+            }
 
-        while (iterator.hasNext()) {
-            Loan loan = iterator.next();
-            Account account = accounts.get(loan.accountHolder().toLowerCase());
+            commit(sequence);
+            return approved;
+        } finally {
+            metrics.record(BankMetrics.Operation.APPROVE_LOAN, null, start);
+        }
+    }
 
-            account.setLoanAmount(account.getLoanAmount() + loan.amount());
-            account.setBalance(account.getBalance() + loan.amount());
+    // Method to merge a holder's further loan requests into their pending one, if any
+    public void setLoanCoalescing(boolean coalescing) {
+        loanRequests.setCoalescing(coalescing);
+    }
 
-            iterator.remove();
-            System.out.println("Loan for " + loan.accountHolder() + " approved");
+    // Method to change the order pending loans are approved in
+    public void setLoanPriority(LoanPriority priority) {
+        yearLock.writeLock().lock();
+        try {
+            loanRequests.setPriority(priority);
+        } finally {
+            yearLock.writeLock().unlock();
         }
+    }
 
-        loanRequestPending = false;
+    // Method to choose when year-end charges reach the balances; going back to eager
+    // first brings every account up to date
+    public void setAccrualMode(AccrualMode mode) {
+        yearLock.writeLock().lock();
+        try {
+            if (mode == AccrualMode.EAGER) settleAll(store.size());
+            accrualMode = mode;
+        } finally {
+            yearLock.writeLock().unlock();
+        }
     }
 
     void changeInterestRate(String accountType, double newRate) {
-        final double roi = newRate / 100.0;
-        if (accountType.equalsIgnoreCase("savings")) {
-            AccountType.SAVINGS_ACCOUNT.interestRate = roi;
-            System.out.println("Interest rate for Savings Account changed to " + newRate);
-        } else if (accountType.equalsIgnoreCase("student")) {
-            AccountType.STUDENT_ACCOUNT.interestRate = roi;
-            System.out.println("Interest rate for Student Account changed to " + newRate);
-        } else if (accountType.equalsIgnoreCase("fixed deposit")) {
-            AccountType.FIXED_DEPOSIT_ACCOUNT.interestRate = roi;
-            System.out.println("Interest rate for Fixed Deposit Account changed to " + newRate);
-        } else {
-            System.out.println("Error: Invalid account type");
+        long start = System.nanoTime();
+        try {
+            final long roi = Money.rate(newRate / 100.0);
+            AccountType type;
+            String label;
+            if (accountType.equalsIgnoreCase("savings")) {
+                type = AccountType.SAVINGS_ACCOUNT;
+                label = "Savings Account";
+            } else if (accountType.equalsIgnoreCase("student")) {
+                type = AccountType.STUDENT_ACCOUNT;
+                label = "Student Account";
+            } else if (accountType.equalsIgnoreCase("fixed deposit")) {
+                type = AccountType.FIXED_DEPOSIT_ACCOUNT;
+                label = "Fixed Deposit Account";
+            } else {
+                events.publish(BankEvent.INVALID_ACCOUNT_TYPE, null, accountType, newRate, 0);
+                return;
+            }
+
+            // Writers still take the write lock, so a change and its journal record cannot straddle a year-end
+            long sequence = 0;
+            yearLock.writeLock().lock();
+            try {
+                rates.set(rates.get().with(type, roi));
+                if (journal != null) sequence = journal.changeInterestRate(type, roi);
+            } finally {
+                yearLock.writeLock().unlock();
+            }
+            commit(sequence);
+            events.publish(BankEvent.INTEREST_RATE_CHANGED, label, accountType, newRate, 0);
+        } finally {
+            metrics.record(BankMetrics.Operation.CHANGE_INTEREST_RATE, null, start);
         }
     }
 
+    long getInternalFunds() { return internalFunds.get(); }
+
+    // Method to deduct an amount from the internal funds only if they cover it
+    private boolean reserveFunds(long amount) {
+        for (long funds = internalFunds.get(); funds >= amount; funds = internalFunds.get()) {
+            if (internalFunds.compareAndSet(funds, funds - amount)) return true;
+        }
+        return false;
+    }
+
+    int getAccountCount() { return store.size(); }
+
+    int getPendingLoanCount() { return loanRequests.size(); }
+
+    // Running totals per account type, read in constant time. In lazy accrual mode they
+    // include year-end charges only for accounts settled since.
+    long getTotalBalance(AccountType type) { return store.totalBalance(type); }
+
+    long getTotalLoans(AccountType type) { return store.totalLoans(type); }
+
+    long getAccountCount(AccountType type) { return store.accountCount(type); }
+
+    long getMaturedCount(AccountType type) { return store.maturedCount(type); }
+
+    // Method to check the running totals against a full scan of the accounts; returns a
+    // description of each total that disagrees, so an empty list means they all match
+    public List<String> verifyTotals() {
+        yearLock.writeLock().lock();
+        try {
+            return store.verifyTotals();
+        } finally {
+            yearLock.writeLock().unlock();
+        }
+    }
+
+    // Method to keep ordered indexes over balances and loans up to date on every change, so the
+    // queries below only touch the accounts they return. Without them each query scans.
+    public void setBalanceIndexing(boolean indexed) {
+        yearLock.writeLock().lock();
+        try {
+            store.setIndexed(indexed);
+        } finally {
+            yearLock.writeLock().unlock();
+        }
+    }
+
+    // Balance and loan queries. They do not lock, so under concurrent updates the result is
+    // weakly consistent; in lazy accrual mode balances are as of each account's last settlement.
+    public List<AccountAmount> largestBalances(int k) {
+        List<AccountAmount> result = new ArrayList<>(Math.max(0, Math.min(k, store.size())));
+        store.largestBalances(k, (id, amount) -> addAmount(result, id, amount));
+        return result;
+    }
+
+    public List<AccountAmount> largestLoans(int k) {
+        List<AccountAmount> result = new ArrayList<>(Math.max(0, Math.min(k, store.size())));
+        store.largestLoans(k, (id, amount) -> addAmount(result, id, amount));
+        return result;
+    }
+
+    // Accounts with a balance below the threshold, smallest first
+    public List<AccountAmount> balancesBelow(double threshold) {
+        return balanceRange(Long.MIN_VALUE, Money.of(threshold));
+    }
+
+    // Accounts with a balance in [from, to), smallest first
+    public List<AccountAmount> balancesBetween(double from, double to) {
+        return balanceRange(Money.of(from), Money.of(to));
+    }
+
+    private List<AccountAmount> balanceRange(long from, long to) {
+        List<AccountAmount> result = new ArrayList<>();
+        store.balanceRange(from, to, (id, amount) -> addAmount(result, id, amount));
+        return result;
+    }
+
+    // An account being created is in the store just before it is registered; it is skipped
+    private void addAmount(List<AccountAmount> result, int id, long amount) {
+        Account account = accounts.get(id);
+        if (account != null) result.add(new AccountAmount(account.accountHolder, Money.toDouble(amount)));
+    }
+
+    long getOperationCount() { return operations.size(); }
+
+    // Method to reach this bank's counters and latency histograms
+    public BankMetrics metrics() { return metrics; }
+
+    // Method to read the current rates without locking
+    RateTable getRates() { return rates.get(); }
+
+    // Rates used by the year-end that started year; only kept for years this bank has run
+    RateTable getRates(int year) { return accrual.rates(year); }
+
     double seeInternalFund() {
-        System.out.println("Internal Funds: " + internalFunds + "$");
-        return internalFunds;
+        long start = System.nanoTime();
+        try {
+            double funds = Money.toDouble(internalFunds.get());
+            events.publish(BankEvent.INTERNAL_FUNDS, null, null, funds, 0);
+            return funds;
+        } finally {
+            metrics.record(BankMetrics.Operation.SEE_INTERNAL_FUND, null, start);
+        }
     }
 
     public int incrementYear() {
-        year++;
+        long start = System.nanoTime();
+        try {
+            int current;
+            long sequence = 0;
+            yearLock.writeLock().lock();
+            try {
+                current = ++year;
+                applyYearEnd();
+                if (journal != null) sequence = journal.incrementYear();
+            } finally {
+                yearLock.writeLock().unlock();
+            }
+            commit(sequence);
+            events.publish(BankEvent.YEAR_PASSED, null, null, current, 0);
+            return current;
+        } finally {
+            metrics.record(BankMetrics.Operation.INCREMENT_YEAR, null, start);
+        }
+    }
 
-        for (Account account : accounts.values()) {
-            double interest = account.getBalance() * getInterestRate(account);
-            double loanInterest = account.getLoanAmount() * LOAN_INTEREST_RATE;
+    // Runs with the write lock held, so no account monitor is needed here. The year's rates
+    // are recorded and due fixed deposits mature; in eager mode every account is then settled,
+    // in lazy mode each account settles when it is next used.
+    private void applyYearEnd() {
+        accrual.yearEnded(year, rates.get());
+        accrual.matureDue(year, id -> store.setMatured(id, true));
+        if (accrualMode == AccrualMode.EAGER) settleAll(store.size());
+    }
 
-            account.setBalance(account.getBalance() + interest);
+    // Method to settle the first count accounts; runs with the write lock held
+    private void settleAll(int count) {
+        ForkJoinPool.commonPool().invoke(new SettleTask(0, count));
+    }
 
-            if(account.getBalance() < loanInterest) {
-                account.setLoanAmount(account.getLoanAmount() + loanInterest - account.getBalance());
-                account.setBalance(0);
-            } else account.setBalance(account.getBalance() - loanInterest);
+    // Method to settle accounts one page at a time while transactions keep running, so a
+    // waiting year-end is never held up for more than a page
+    private void settleEach(int count) {
+        for (int from = 0; from < count; from += YEAR_END_BATCH) {
+            yearLock.readLock().lock();
+            try {
+                for (int id = from; id < Math.min(count, from + YEAR_END_BATCH); id++) {
+                    // An account being created is in the store just before it is registered; it
+                    // starts out settled anyway
+                    Account account = accounts.get(id);
+                    if (account == null) continue;
+                    synchronized (account) {
+                        settle(id);
+                    }
+                }
+            } finally {
+                yearLock.readLock().unlock();
+            }
+        }
+    }
 
-            if(!(account instanceof StudentAccount))
-                if(account.getBalance() < SERVICE_CHARGE) {
-                    account.setLoanAmount(account.getLoanAmount() + SERVICE_CHARGE - account.getBalance());
-                    account.setBalance(0);
-                } else account.setBalance(account.getBalance() - SERVICE_CHARGE);
+    // SettleTask class
+    // Splits the account id range until a batch is small enough, then settles each account
+    // in a single pass over the store.
+    // Every account is updated independently, so the result does not depend on the split.
+    @SuppressWarnings("serial")
+    private final class SettleTask extends RecursiveAction {
+        private final int from;
+        private final int to;
 
-            if(account instanceof FixedDepositAccount) ((FixedDepositAccount) account).setHasReachedMaturityPeriod(true);
+        SettleTask(int from, int to) {
+            this.from = from;
+            this.to = to;
         }
 
-        System.out.println(year + " year(s) passed");
-        return year;
+        @Override
+        protected void compute() {
+            if (to - from <= YEAR_END_BATCH) {
+                for (int id = from; id < to; id++) settle(id);
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new SettleTask(from, mid), new SettleTask(mid, to));
+            }
+        }
     }
 
-    private double getInterestRate(Account account) {
-        if (account instanceof SavingsAccount) {
-            return AccountType.SAVINGS_ACCOUNT.interestRate;
-        } else if (account instanceof StudentAccount) {
-            return AccountType.STUDENT_ACCOUNT.interestRate;
-        } else if (account instanceof FixedDepositAccount) {
-            return AccountType.FIXED_DEPOSIT_ACCOUNT.interestRate;
+    // Method to apply, in order, every year-end this account has missed, each with the rates
+    // in force at the time. Called with the account's monitor or the write lock held.
+    private void settle(int id) {
+        int current = year;
+        for (int accrued = store.accruedYear(id); accrued < current; ) {
+            applyYearEnd(id, accrual.rates(++accrued));
+            store.setAccruedYear(id, accrued);
         }
-        return 0;
+    }
+
+    private void applyYearEnd(int id, RateTable rates) {
+        AccountType type = store.type(id);
+        long balance = store.balance(id);
+        long loanAmount = store.loanAmount(id);
+        long loanInterest = Money.applyRate(loanAmount, LOAN_INTEREST_RATE, LOAN_INTEREST_ROUNDING);
+
+        balance = Money.add(balance, Money.applyRate(balance, rates.rate(type), INTEREST_ROUNDING));
+
+        // Amounts held by prepared transfers are already promised, so charges only take the
+        // rest of the balance and the shortfall goes on the loan as usual
+        long held = store.held(id);
+        long available = balance - held;
+
+        if(available < loanInterest) {
+            loanAmount = Money.add(loanAmount, loanInterest - available);
+            available = 0;
+        } else available -= loanInterest;
+
+        if(type.serviceCharged)
+            if(available < SERVICE_CHARGE) {
+                loanAmount = Money.add(loanAmount, SERVICE_CHARGE - available);
+                available = 0;
+            } else available -= SERVICE_CHARGE;
+
+        store.setBalance(id, available + held);
+        store.setLoanAmount(id, loanAmount);
     }
 
     public boolean isAccountExist(String name) {
-        String lowercaseName = name.toLowerCase();
-        return accounts.containsKey(lowercaseName);
+        return accounts.contains(name);
     }
 
     public Account getAccount(String name) {
-        return accounts.get(name.toLowerCase());
+        return accounts.get(name);
     }
 
     public Employee getEmployee(String name) {
-        return employees.get(name.toUpperCase());
+        return employees.get(name);
     }
 
-    public boolean isLoanRequestPending() { return loanRequestPending; }
+    public boolean isEmployee(String name) {
+        return employees.contains(name);
+    }
+
+    // Read from the queue itself, so it can never disagree with concurrent requests and approvals
+    public boolean isLoanRequestPending() { return !loanRequests.isEmpty(); }
+
+    BankEventSink events() { return events; }
 
     public void addOperation(String details, String accountHolder) {
-        operations.add(new Operation(details, accountHolder, year));
+        operations.append(details, accountHolder, year);
+    }
+
+    // Method to search the operation history through its holder, kind and year indexes
+    public Stream<OperationQuery.Match> queryOperations(OperationQuery query) {
+        Iterator<OperationQuery.Match> matches = operations.find(query);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(matches,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    // Method to answer the same queries by a plain scan of the history, for benchmarking
+    Stream<OperationQuery.Match> scanOperations(OperationQuery query) {
+        Iterator<OperationQuery.Match> matches = operations.scan(query);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(matches,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
     }
 
     public void printOperationList() {
-        for (Operation operation : operations) {
+        OperationLog.Cursor operation = operations.cursor();
+        while (operation.next()) {
             System.out.println("Operation Performed: " + operation.details() +
                     ", By: " + operation.accountHolder() +
                     ", In Year: " + operation.year());
         }
     }
+
+    // Method to flush and close the journal, if any
+    public void close() {
+        synchronized (this) {
+            if (snapshotScheduler != null) snapshotScheduler.shutdown();
+        }
+        metrics.close();
+        if (journal != null) journal.close();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,69 @@
+package bankingSystem;
+
+
+// BankEvent enum
+// Outcome codes published by Bank, Account and Employee; each knows its console text.
+// Depending on the event, subject is a holder, employee or label, detail an account type or
+// a transfer's receiving holder, amount a money amount, rate or year, and balance the
+// resulting balance.
+public enum BankEvent {
+    BANK_CREATED,
+    ACCOUNT_CREATED,
+    ACCOUNT_EXISTS,
+    FIXED_DEPOSIT_TOO_LOW,
+    INVALID_ACCOUNT_TYPE,
+    HOLDER_NAME_TOO_LONG,
+    EMPLOYEE_CREATED,
+    INVALID_EMPLOYEE_TYPE,
+    ACCOUNT_NOT_FOUND,
+    DEPOSITED,
+    WITHDRAWN,
+    INVALID_TRANSACTION,
+    LOAN_REQUESTED,
+    INSUFFICIENT_FUNDS,
+    LOAN_LIMIT_EXCEEDED,
+    BALANCE,
+    LOOKUP,
+    LOAN_APPROVED,
+    LOAN_REJECTED,
+    INTEREST_RATE_CHANGED,
+    INTERNAL_FUNDS,
+    YEAR_PASSED,
+    TRANSFERRED,
+    TRANSFER_FAILED,
+    BATCH_APPLIED,
+    PERMISSION_DENIED;
+
+    // Method to render the event the way the console has always shown it
+    public String format(String subject, String detail, double amount, double balance) {
+        return switch (this) {
+            case BANK_CREATED -> "Bank Created; " + subject + " created";
+            case ACCOUNT_CREATED -> detail + " account for " + subject + " created; initial balance " + amount + "$";
+            case ACCOUNT_EXISTS -> "Error: Account already exists for " + subject;
+            case FIXED_DEPOSIT_TOO_LOW -> "Error: Initial deposit for Fixed Deposit Account must be at least 100,000$";
+            case INVALID_ACCOUNT_TYPE -> "Error: Invalid account type";
+            case HOLDER_NAME_TOO_LONG -> "Error: Account holder name is too long";
+            case EMPLOYEE_CREATED -> subject + " created";
+            case INVALID_EMPLOYEE_TYPE -> "Error: Invalid employee type";
+            case ACCOUNT_NOT_FOUND -> "Error: Account not found for " + subject;
+            case DEPOSITED -> amount + "$ deposited; current balance " + balance + "$";
+            case WITHDRAWN -> amount + "$ withdrawn; current balance " + balance + "$";
+            case INVALID_TRANSACTION -> "Invalid transaction; current balance " + balance + "$";
+            case LOAN_REQUESTED -> "Loan request successful, sent for approval";
+            case INSUFFICIENT_FUNDS -> "Error: Insufficient internal funds";
+            case LOAN_LIMIT_EXCEEDED -> "Error: Loan amount exceeds maximum loan amount";
+            case BALANCE -> amount == 0 ? "Current Balance " + balance + "$"
+                    : "Current Balance " + balance + "$, loan " + amount + "$";
+            case LOOKUP -> subject + "'s current balance " + balance + "$";
+            case LOAN_APPROVED -> "Loan for " + subject + " approved";
+            case LOAN_REJECTED -> "Loan for " + subject + " rejected";
+            case INTEREST_RATE_CHANGED -> "Interest rate for " + subject + " changed to " + amount;
+            case INTERNAL_FUNDS -> "Internal Funds: " + amount + "$";
+            case YEAR_PASSED -> (int) amount + " year(s) passed";
+            case TRANSFERRED -> amount + "$ transferred from " + subject + " to " + detail;
+            case TRANSFER_FAILED -> "Transfer from " + subject + " to " + detail + " failed";
+            case BATCH_APPLIED -> "Batch applied; " + (int) amount + " of " + (int) balance + " transactions succeeded";
+            case PERMISSION_DENIED -> "You don’t have permission for this operation";
+        };
+    }
+}
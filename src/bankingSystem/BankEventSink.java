@@ -0,0 +1,11 @@
+package bankingSystem;
+
+
+// BankEventSink interface
+// Receives every outcome the bank reports. Arguments are primitives and existing strings,
+// so publishing allocates nothing; formatting is left to the sink.
+public interface BankEventSink {
+    BankEventSink NONE = (event, subject, detail, amount, balance) -> { };
+
+    void publish(BankEvent event, String subject, String detail, double amount, double balance);
+}
@@ -0,0 +1,204 @@
+package bankingSystem;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+
+// BankMetrics class
+// Call counts and latency histograms for each bank operation, split by account type where the
+// operation acts on one account, plus gauges read from the bank on demand. Counters are
+// striped and histograms lock-free, so recording costs two clock reads and a few atomic adds.
+// Employee actions are measured at the bank operation they perform.
+public final class BankMetrics implements BankMetricsMXBean {
+    enum Operation {
+        DEPOSIT, WITHDRAW, REQUEST_LOAN, TRANSFER, QUERY_BALANCE,
+        LOOKUP, APPROVE_LOAN, CHANGE_INTEREST_RATE, SEE_INTERNAL_FUND, INCREMENT_YEAR
+    }
+
+    private static final Operation[] OPERATIONS = Operation.values();
+    private static final Bank.AccountType[] TYPES = Bank.AccountType.values();
+
+    private final Bank bank;
+    // [operation][0] for calls not tied to an account, [operation][1 + type ordinal] otherwise
+    private final LatencyHistogram[][] latencies;
+    private ScheduledExecutorService dumpScheduler;
+    private ObjectName registeredName;
+
+    BankMetrics(Bank bank) {
+        this.bank = bank;
+        this.latencies = new LatencyHistogram[OPERATIONS.length][TYPES.length + 1];
+        for (LatencyHistogram[] row : latencies) {
+            for (int i = 0; i < row.length; i++) row[i] = new LatencyHistogram();
+        }
+    }
+
+    // Method to record one call that started at startNanos (a System.nanoTime reading)
+    void record(Operation operation, Bank.AccountType type, long startNanos) {
+        latencies[operation.ordinal()][type == null ? 0 : type.ordinal() + 1].record(System.nanoTime() - startNanos);
+    }
+
+    @Override
+    public double getInternalFunds() { return Money.toDouble(bank.getInternalFunds()); }
+
+    @Override
+    public int getPendingLoans() { return bank.getPendingLoanCount(); }
+
+    @Override
+    public int getAccounts() { return bank.getAccountCount(); }
+
+    @Override
+    public long getOperations() { return bank.getOperationCount(); }
+
+    @Override
+    public Map<String, Double> getBalanceTotals() { return perType(type -> Money.toDouble(bank.getTotalBalance(type))); }
+
+    @Override
+    public Map<String, Double> getLoanTotals() { return perType(type -> Money.toDouble(bank.getTotalLoans(type))); }
+
+    @Override
+    public Map<String, Long> getAccountCounts() { return perType(bank::getAccountCount); }
+
+    @Override
+    public Map<String, Long> getMaturedCounts() { return perType(bank::getMaturedCount); }
+
+    private static <T> Map<String, T> perType(Function<Bank.AccountType, T> value) {
+        Map<String, T> values = new TreeMap<>();
+        for (Bank.AccountType type : TYPES) values.put(type.name().toLowerCase(Locale.ROOT), value.apply(type));
+        return values;
+    }
+
+    @Override
+    public Map<String, Long> getCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        forEachRecorded((key, histogram) -> counts.put(key, histogram.count()));
+        return counts;
+    }
+
+    @Override
+    public Map<String, Double> getMeanMicros() { return micros(LatencyHistogram::mean); }
+
+    @Override
+    public Map<String, Double> getP50Micros() { return micros(histogram -> histogram.percentile(0.50)); }
+
+    @Override
+    public Map<String, Double> getP99Micros() { return micros(histogram -> histogram.percentile(0.99)); }
+
+    @Override
+    public Map<String, Double> getMaxMicros() { return micros(histogram -> histogram.max()); }
+
+    private Map<String, Double> micros(ToDoubleFunction<LatencyHistogram> nanos) {
+        Map<String, Double> values = new TreeMap<>();
+        forEachRecorded((key, histogram) -> values.put(key, nanos.applyAsDouble(histogram) / 1e3));
+        return values;
+    }
+
+    private interface HistogramVisitor { void visit(String key, LatencyHistogram histogram); }
+
+    // Method to visit every histogram that has recorded at least one call
+    private void forEachRecorded(HistogramVisitor visitor) {
+        for (Operation operation : OPERATIONS) {
+            LatencyHistogram[] row = latencies[operation.ordinal()];
+            for (int i = 0; i < row.length; i++) {
+                if (row[i].count() == 0) continue;
+                String key = operation.name().toLowerCase(Locale.ROOT);
+                if (i > 0) key += "/" + TYPES[i - 1].name().toLowerCase(Locale.ROOT);
+                visitor.visit(key, row[i]);
+            }
+        }
+    }
+
+    @Override
+    public String dump() {
+        StringBuilder text = new StringBuilder();
+        text.append("# bank metrics at ").append(Instant.now()).append('\n');
+        text.append(String.format(Locale.ROOT, "internal_funds %.2f%n", getInternalFunds()));
+        text.append("pending_loans ").append(getPendingLoans()).append('\n');
+        text.append("accounts ").append(getAccounts()).append('\n');
+        text.append("operations ").append(getOperations()).append('\n');
+        text.append(String.format(Locale.ROOT, "%-40s %12s %16s %16s %12s%n",
+                "account_type", "accounts", "balance", "loans", "matured"));
+        for (Bank.AccountType type : TYPES) {
+            text.append(String.format(Locale.ROOT, "%-40s %12d %16.2f %16.2f %12d%n",
+                    type.name().toLowerCase(Locale.ROOT), bank.getAccountCount(type),
+                    Money.toDouble(bank.getTotalBalance(type)), Money.toDouble(bank.getTotalLoans(type)),
+                    bank.getMaturedCount(type)));
+        }
+        text.append(String.format(Locale.ROOT, "%-40s %12s %12s %12s %12s %12s%n",
+                "operation", "count", "mean_us", "p50_us", "p99_us", "max_us"));
+        forEachRecorded((key, histogram) -> text.append(String.format(Locale.ROOT,
+                "%-40s %12d %12.1f %12.1f %12.1f %12.1f%n", key, histogram.count(), histogram.mean() / 1e3,
+                histogram.percentile(0.50) / 1e3, histogram.percentile(0.99) / 1e3, histogram.max() / 1e3)));
+        return text.toString();
+    }
+
+    // Method to publish these metrics on the platform MBean server as
+    // bankingSystem:type=Bank,name=<name>
+    public synchronized void register(String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (registeredName != null) server.unregisterMBean(registeredName);
+            registeredName = ObjectName.getInstance("bankingSystem:type=Bank,name=" + ObjectName.quote(name));
+            server.registerMBean(this, registeredName);
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register bank metrics as " + name, e);
+        }
+    }
+
+    // Method to rewrite the file with a fresh dump at a fixed interval. The dump is written
+    // next to it first and moved into place, so a reader never sees half a dump.
+    public synchronized void scheduleDump(Path file, long intervalSeconds) {
+        if (dumpScheduler != null) dumpScheduler.shutdown();
+        dumpScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "bank-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumpScheduler.scheduleWithFixedDelay(() -> {
+            try {
+                writeDump(file);
+            } catch (RuntimeException e) {
+                System.err.println("Metrics dump failed: " + e.getMessage());
+            }
+        }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    void writeDump(Path file) {
+        Path partial = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.writeString(partial, dump(), StandardCharsets.UTF_8);
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Method to stop the periodic dump and leave JMX
+    synchronized void close() {
+        if (dumpScheduler != null) dumpScheduler.shutdown();
+        if (registeredName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+            } catch (JMException e) {
+                // Already gone
+            }
+            registeredName = null;
+        }
+    }
+}
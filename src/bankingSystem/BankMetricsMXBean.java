@@ -0,0 +1,39 @@
+package bankingSystem;
+
+import java.util.Map;
+
+
+// BankMetricsMXBean interface
+// What a bank exposes over JMX. Operation keys are "operation" or "operation/account type",
+// for example "deposit/savings_account"; latencies are in microseconds.
+public interface BankMetricsMXBean {
+    double getInternalFunds();
+
+    int getPendingLoans();
+
+    int getAccounts();
+
+    long getOperations();
+
+    // Per account type, from the bank's running totals
+    Map<String, Double> getBalanceTotals();
+
+    Map<String, Double> getLoanTotals();
+
+    Map<String, Long> getAccountCounts();
+
+    Map<String, Long> getMaturedCounts();
+
+    Map<String, Long> getCounts();
+
+    Map<String, Double> getMeanMicros();
+
+    Map<String, Double> getP50Micros();
+
+    Map<String, Double> getP99Micros();
+
+    Map<String, Double> getMaxMicros();
+
+    // Method to render everything above as the text written by the periodic dump
+    String dump();
+}
@@ -0,0 +1,19 @@
+package bankingSystem;
+
+import java.io.PrintStream;
+
+
+// ConsoleEventSink class
+// Prints each event's console text; without a stream it writes to the current System.out
+public class ConsoleEventSink implements BankEventSink {
+    private final PrintStream out;
+
+    public ConsoleEventSink() { this(null); }
+
+    public ConsoleEventSink(PrintStream out) { this.out = out; }
+
+    @Override
+    public void publish(BankEvent event, String subject, String detail, double amount, double balance) {
+        (out != null ? out : System.out).println(event.format(subject, detail, amount, balance));
+    }
+}
@@ -2,98 +2,40 @@ package bankingSystem;
 
 
 // Employee class
-abstract public class Employee {
-    protected String name;
-
-    Employee(String name) {
+// An employee acts with the permissions of their role. Each operation tests the role's
+// permission bit before it reaches the bank, so there is one implementation per operation
+// whatever the role; a missing permission is reported and the bank is not called.
+public final class Employee {
+    final String name;
+    private final Role role;
+
+    Employee(String name, Role role) {
         this.name = name;
+        this.role = role;
     }
 
-    abstract public double lookup(String accountHolder, Bank bank);
-
-    abstract public void approveLoan(Bank bank);
-
-    abstract public void changeInterestRate(String accountType, double newRate, Bank bank);
-
-    abstract public double seeInternalFund(Bank bank);
-}
-
-
-// ManagingDirector class
-class ManagingDirector extends Employee {
-    ManagingDirector(String name) {
-        super(name);
-    }
-
-    @Override
-    public double lookup(String accountHolder, Bank bank) { return bank.lookup(accountHolder); }
-
-    @Override
-    public void approveLoan(Bank bank) { bank.approveLoan(); }
-
-    @Override
-    public void changeInterestRate(String accountType, double newRate, Bank bank) {
-        bank.changeInterestRate(accountType, newRate);
-    }
-
-    @Override
-    public double seeInternalFund(Bank bank) { return bank.seeInternalFund(); }
-}
-
-
-// Officer class
-class Officer extends Employee {
-    Officer(String name) {
-        super(name);
-    }
-
-    @Override
-    public double lookup(String accountHolder, Bank bank) {
-        return bank.lookup(accountHolder);
-    }
-
-    @Override
-    public void approveLoan(Bank bank) {
-        bank.approveLoan();
-    }
-
-    @Override
-    public void changeInterestRate(String accountType, double newRate, Bank bank) {
-        System.out.println("You don’t have permission for this operation");
-    }
-
-    @Override
-    public double seeInternalFund(Bank bank) {
-        System.out.println("You don’t have permission for this operation");
-        return 0;
-    }
-}
-
+    // Method for callers to check a permission up front, e.g. to keep denied calls off the history
+    public boolean permits(EmployeeOperation operation) { return role.allows(operation); }
 
-// Cashier class
-class Cashier extends Employee {
-    Cashier(String name) {
-        super(name);
+    private boolean check(EmployeeOperation operation, Bank bank) {
+        if (role.allows(operation)) return true;
+        bank.events().publish(BankEvent.PERMISSION_DENIED, name, null, 0, 0);
+        return false;
     }
 
-    @Override
     public double lookup(String accountHolder, Bank bank) {
-        return bank.lookup(accountHolder);
+        return check(EmployeeOperation.LOOKUP, bank) ? bank.lookup(accountHolder) : 0;
     }
 
-    @Override
     public void approveLoan(Bank bank) {
-        System.out.println("You don’t have permission for this operation");
+        if (check(EmployeeOperation.APPROVE_LOAN, bank)) bank.approveLoan();
     }
 
-    @Override
     public void changeInterestRate(String accountType, double newRate, Bank bank) {
-        System.out.println("You don’t have permission for this operation");
+        if (check(EmployeeOperation.CHANGE_INTEREST_RATE, bank)) bank.changeInterestRate(accountType, newRate);
     }
 
-    @Override
     public double seeInternalFund(Bank bank) {
-        System.out.println("You don’t have permission for this operation");
-        return 0;
+        return check(EmployeeOperation.SEE_INTERNAL_FUND, bank) ? bank.seeInternalFund() : 0;
     }
 }
@@ -0,0 +1,25 @@
+package bankingSystem;
+
+
+// EmployeeOperation enum
+// What an employee can be permitted to do, named by its command keyword. Each operation is
+// one bit of a role's permission bitmap.
+public enum EmployeeOperation {
+    LOOKUP("lookup"),
+    APPROVE_LOAN("approve"),
+    CHANGE_INTEREST_RATE("change"),
+    SEE_INTERNAL_FUND("see");
+
+    private final String keyword;
+
+    EmployeeOperation(String keyword) { this.keyword = keyword; }
+
+    int bit() { return 1 << ordinal(); }
+
+    static EmployeeOperation parse(String keyword) {
+        for (EmployeeOperation operation : values()) {
+            if (operation.keyword.equalsIgnoreCase(keyword)) return operation;
+        }
+        throw new IllegalArgumentException("Unknown employee operation: " + keyword);
+    }
+}
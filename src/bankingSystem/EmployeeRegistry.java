@@ -0,0 +1,55 @@
+package bankingSystem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+// EmployeeRegistry class
+// A bank's employees by name, case-insensitively. Each role numbers its employees from its own
+// counter, and hiring reserves a whole block of numbers with one atomic add, so concurrent and
+// bulk hiring never hand out a name twice and never wait on each other.
+final class EmployeeRegistry {
+    private final Map<String, Employee> byName = new ConcurrentHashMap<>();
+    private final Map<Role, AtomicInteger> staff = new ConcurrentHashMap<>();
+
+    Employee get(String name) { return byName.get(name.toUpperCase()); }
+
+    boolean contains(String name) { return get(name) != null; }
+
+    // Method to add an employee that is named by its role alone, such as the managing director
+    void add(Employee employee) { byName.put(employee.name, employee); }
+
+    // Method to hire count new employees of a role, numbered on from the role's last one
+    List<Employee> hire(Role role, int count) {
+        int first = counter(role).getAndAdd(count) + 1;
+        List<Employee> hired = new ArrayList<>(count);
+        for (int number = first; number < first + count; number++) {
+            Employee employee = new Employee(role.code + number, role);
+            byName.put(employee.name, employee);
+            hired.add(employee);
+        }
+        return hired;
+    }
+
+    // Method to hire as many employees of a role as it takes to reach count, as when restoring
+    void hireUpTo(Role role, int count) {
+        int current = staff(role);
+        if (current < count) hire(role, count - current);
+    }
+
+    int staff(Role role) { return counter(role).get(); }
+
+    // Roles that have hired anyone, with how many
+    Map<Role, Integer> staffCounts() {
+        Map<Role, Integer> counts = new ConcurrentHashMap<>();
+        staff.forEach((role, count) -> counts.put(role, count.get()));
+        return counts;
+    }
+
+    private AtomicInteger counter(Role role) {
+        return staff.computeIfAbsent(role, ignored -> new AtomicInteger());
+    }
+}
@@ -0,0 +1,82 @@
+package bankingSystem;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+
+// HolderRegistry class
+// Case-insensitive index from holder name to account that never lower-cases the name: hashing
+// and comparison fold case one character at a time, so a lookup allocates nothing. Accounts
+// are also reachable by their AccountStore id, which is the stable integer handle.
+// Lookups are lock-free; registration is synchronized and publishes slots with release stores.
+final class HolderRegistry {
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(Account[].class);
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Open addressing with linear probing, kept at most half full
+    private volatile Account[] table = new Account[INITIAL_CAPACITY];
+    private volatile Account[] byId = new Account[INITIAL_CAPACITY];
+    private int size;
+
+    // Method to hash a name the way equalsIgnoreCase compares it. For ordinary names this is
+    // the hashCode of the lower-cased name, so shard routing keeps its old placement.
+    static int hash(CharSequence name) {
+        int h = 0;
+        for (int i = 0; i < name.length(); i++) h = 31 * h + fold(name.charAt(i));
+        return h;
+    }
+
+    private static int slot(String name, int mask) {
+        int h = hash(name);
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private static char fold(char c) { return Character.toLowerCase(Character.toUpperCase(c)); }
+
+    Account get(String accountHolder) {
+        Account[] slots = table;
+        int mask = slots.length - 1;
+        for (int i = slot(accountHolder, mask); ; i = (i + 1) & mask) {
+            Account account = (Account) SLOTS.getAcquire(slots, i);
+            if (account == null) return null;
+            if (account.accountHolder.equalsIgnoreCase(accountHolder)) return account;
+        }
+    }
+
+    Account get(int id) {
+        Account[] accounts = byId;
+        return id < accounts.length ? (Account) SLOTS.getAcquire(accounts, id) : null;
+    }
+
+    boolean contains(String accountHolder) { return get(accountHolder) != null; }
+
+    // Method to register the account made by the factory, unless the name is already taken.
+    // Returns the new account, or null if the name was taken (the factory is then not called).
+    synchronized Account register(String accountHolder, Supplier<Account> factory) {
+        if (get(accountHolder) != null) return null;
+
+        Account account = factory.get();
+        if (2 * (size + 1) > table.length) table = rehash(table, table.length * 2);
+        insert(table, account);
+
+        if (account.id >= byId.length) byId = Arrays.copyOf(byId, Math.max(byId.length * 2, account.id + 1));
+        SLOTS.setRelease(byId, account.id, account);
+        size++;
+        return account;
+    }
+
+    private static void insert(Account[] slots, Account account) {
+        int mask = slots.length - 1;
+        int i = slot(account.accountHolder, mask);
+        while (slots[i] != null) i = (i + 1) & mask;
+        SLOTS.setRelease(slots, i, account);
+    }
+
+    private static Account[] rehash(Account[] slots, int capacity) {
+        Account[] grown = new Account[capacity];
+        for (Account account : slots) if (account != null) insert(grown, account);
+        return grown;
+    }
+}
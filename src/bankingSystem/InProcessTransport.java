@@ -0,0 +1,28 @@
+package bankingSystem;
+
+
+// InProcessTransport class
+// Stand-in transport that calls the shards in this JVM directly
+class InProcessTransport implements ShardTransport {
+    private final Bank[] shards;
+
+    InProcessTransport(Bank[] shards) {
+        this.shards = shards;
+    }
+
+    @Override
+    public boolean prepareDebit(int shard, long leg, String accountHolder, long amount) {
+        return shards[shard].prepareDebit(leg, accountHolder, amount);
+    }
+
+    @Override
+    public boolean prepareCredit(int shard, long leg, String accountHolder, long amount) {
+        return shards[shard].prepareCredit(leg, accountHolder, amount);
+    }
+
+    @Override
+    public void commit(int shard, long leg) { shards[shard].commitTransfer(leg); }
+
+    @Override
+    public void abort(int shard, long leg) { shards[shard].abortTransfer(leg); }
+}
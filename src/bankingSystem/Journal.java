@@ -0,0 +1,365 @@
+package bankingSystem;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+
+// Journal class
+// Append-only binary log of every state-changing Bank call.
+// Each record is [int length][int crc32c][byte kind][payload]; a torn or corrupt tail
+// is cut off on recovery. Appends go to an in-memory buffer and reach the file on commit,
+// so concurrent committers share one write and one fsync (group commit).
+public final class Journal implements AutoCloseable {
+    public enum SyncPolicy {
+        EVERY_OPERATION,    // commit returns once the record is on disk
+        BATCHED,            // a background flusher writes and fsyncs every interval
+        NONE                // commit writes to the OS page cache, never fsyncs
+    }
+
+    enum Kind { CREATE_ACCOUNT, DEPOSIT, WITHDRAW, REQUEST_LOAN, APPROVE_LOAN, CHANGE_INTEREST_RATE, INCREMENT_YEAR, REJECT_LOAN, COALESCE_LOAN, TRANSFER,
+        DEFINE_ROLE, HIRE_EMPLOYEES }
+
+    // Decoded journal entry; unused fields are null or 0 depending on the kind.
+    // counterparty is the receiving holder of a transfer; role and permissions describe the
+    // employee role a definition or hire is for, and amount is the number hired.
+    record Entry(Kind kind, String accountHolder, String counterparty, Bank.AccountType accountType, long amount,
+                 String role, int permissions) {
+        Entry(Kind kind, String accountHolder, String counterparty, Bank.AccountType accountType, long amount) {
+            this(kind, accountHolder, counterparty, accountType, amount, null, 0);
+        }
+    }
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int HEADER_SIZE = 8;
+    private static final int MAX_NAME_BYTES = 0xFFFF;
+    // Big enough for any record, even a transfer between two holders with the longest names
+    private static final int BUFFER_SIZE = 1 << 18;
+    private static final Kind[] KINDS = Kind.values();
+    private static final Bank.AccountType[] TYPES = Bank.AccountType.values();
+
+    private final Path directory;
+    private final SyncPolicy policy;
+    private FileChannel channel;
+    private long segment;
+    private final ByteBuffer buffer;
+    private final CRC32C crc;
+    private final ScheduledExecutorService flusher;
+
+    // Guarded by this; a record with sequence <= writtenSequence is in the file
+    private long appendedSequence;
+    private long writtenSequence;
+    private volatile long durableSequence;
+
+    private Journal(Path directory, SyncPolicy policy, long batchIntervalMillis) throws IOException {
+        this.directory = directory;
+        this.policy = policy;
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        this.crc = new CRC32C();
+
+        Files.createDirectories(directory);
+        List<Path> segments = segments(directory);
+        this.segment = segments.isEmpty() ? 0 : segmentIndex(segments.get(segments.size() - 1));
+        this.channel = openSegment(segment);
+
+        if (policy == SyncPolicy.BATCHED) {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "journal-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::flushQuietly, batchIntervalMillis, batchIntervalMillis, TimeUnit.MILLISECONDS);
+        } else this.flusher = null;
+    }
+
+    // Method to open (or create) the journal in a directory after its existing records were replayed
+    static Journal open(Path directory, SyncPolicy policy, long batchIntervalMillis) {
+        try {
+            return new Journal(directory, policy, batchIntervalMillis);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private FileChannel openSegment(long index) throws IOException {
+        FileChannel opened = FileChannel.open(directory.resolve(segmentName(index)),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        opened.position(opened.size());
+        return opened;
+    }
+
+    // Method to read every intact record from the given segment on, truncating a torn tail
+    static void replay(Path directory, long fromSegment, Consumer<Entry> consumer) {
+        try {
+            if (!Files.isDirectory(directory)) return;
+            for (Path segment : segments(directory)) {
+                if (segmentIndex(segment) >= fromSegment) replaySegment(segment, consumer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void replaySegment(Path segment, Consumer<Entry> consumer) throws IOException {
+        try (FileChannel in = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer data = ByteBuffer.allocate((int) in.size());
+            while (data.hasRemaining() && in.read(data) >= 0) { }
+            data.flip();
+
+            CRC32C check = new CRC32C();
+            long valid = 0;
+            while (data.remaining() >= HEADER_SIZE) {
+                int length = data.getInt(data.position());
+                int expected = data.getInt(data.position() + 4);
+                if (length <= 0 || data.remaining() - HEADER_SIZE < length) break;
+
+                ByteBuffer payload = data.slice(data.position() + HEADER_SIZE, length);
+                check.reset();
+                check.update(payload.duplicate());
+                if ((int) check.getValue() != expected) break;
+
+                consumer.accept(decode(payload));
+                data.position(data.position() + HEADER_SIZE + length);
+                valid = data.position();
+            }
+
+            if (valid < in.size()) in.truncate(valid);
+        }
+    }
+
+    private static Entry decode(ByteBuffer payload) {
+        Kind kind = KINDS[payload.get()];
+        return switch (kind) {
+            case CREATE_ACCOUNT -> {
+                String holder = readString(payload);
+                Bank.AccountType type = TYPES[payload.get()];
+                yield new Entry(kind, holder, null, type, payload.getLong());
+            }
+            case DEPOSIT, WITHDRAW, REQUEST_LOAN, APPROVE_LOAN, REJECT_LOAN, COALESCE_LOAN -> new Entry(kind, readString(payload), null, null, payload.getLong());
+            case TRANSFER -> {
+                String holder = readString(payload);
+                yield new Entry(kind, holder, readString(payload), null, payload.getLong());
+            }
+            case CHANGE_INTEREST_RATE -> new Entry(kind, null, null, TYPES[payload.get()], payload.getLong());
+            case INCREMENT_YEAR -> new Entry(kind, null, null, null, 0);
+            case DEFINE_ROLE -> new Entry(kind, null, null, null, 0, readString(payload), payload.getInt());
+            case HIRE_EMPLOYEES -> {
+                String role = readString(payload);
+                int permissions = payload.getInt();
+                yield new Entry(kind, null, null, null, payload.getLong(), role, permissions);
+            }
+        };
+    }
+
+    private static String readString(ByteBuffer payload) {
+        byte[] bytes = new byte[payload.getShort() & 0xFFFF];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static List<Path> segments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return new ArrayList<>(files.filter(Journal::isSegment).sorted().toList());
+        }
+    }
+
+    private static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static String segmentName(long index) {
+        return String.format("%s%016d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX);
+    }
+
+    private static long segmentIndex(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    // Method to seal the active segment and start a new one; returns the new segment's index.
+    // The caller must make sure no append runs concurrently (Bank holds its write lock).
+    synchronized long rotate() {
+        flush(policy != SyncPolicy.NONE);
+        try {
+            channel.close();
+            channel = openSegment(++segment);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return segment;
+    }
+
+    // Method to delete segments that are fully covered by a snapshot
+    void deleteSegmentsBefore(long index) {
+        try {
+            for (Path segment : segments(directory)) {
+                if (segmentIndex(segment) < index) Files.deleteIfExists(segment);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Method to check that a name fits the journal's two-byte length and the snapshot's
+    // writeUTF. Modified UTF-8 is never shorter than UTF-8, so its length is the one checked.
+    static boolean fitsName(String name) {
+        int bytes = 0;
+        for (int i = 0; i < name.length() && bytes <= MAX_NAME_BYTES; i++) {
+            char c = name.charAt(i);
+            bytes += c >= 1 && c <= 0x7F ? 1 : c <= 0x7FF ? 2 : 3;
+        }
+        return bytes <= MAX_NAME_BYTES;
+    }
+
+    long createAccount(String accountHolder, Bank.AccountType type, long initialDeposit) {
+        return append(Kind.CREATE_ACCOUNT, accountHolder, null, type, initialDeposit);
+    }
+
+    long deposit(String accountHolder, long amount) { return append(Kind.DEPOSIT, accountHolder, null, null, amount); }
+
+    long withdraw(String accountHolder, long amount) { return append(Kind.WITHDRAW, accountHolder, null, null, amount); }
+
+    long requestLoan(String accountHolder, long amount) { return append(Kind.REQUEST_LOAN, accountHolder, null, null, amount); }
+
+    long coalesceLoan(String accountHolder, long amount) { return append(Kind.COALESCE_LOAN, accountHolder, null, null, amount); }
+
+    long approveLoan(String accountHolder, long amount) { return append(Kind.APPROVE_LOAN, accountHolder, null, null, amount); }
+
+    long rejectLoan(String accountHolder, long amount) { return append(Kind.REJECT_LOAN, accountHolder, null, null, amount); }
+
+    long transfer(String fromHolder, String toHolder, long amount) { return append(Kind.TRANSFER, fromHolder, toHolder, null, amount); }
+
+    long changeInterestRate(Bank.AccountType type, long rate) { return append(Kind.CHANGE_INTEREST_RATE, null, null, type, rate); }
+
+    long incrementYear() { return append(Kind.INCREMENT_YEAR, null, null, null, 0); }
+
+    long defineRole(String role, int permissions) { return append(Kind.DEFINE_ROLE, role, null, null, permissions, 0); }
+
+    // The role's permissions go with every hire, so a hire can be replayed even when the
+    // role's definition was dropped along with older segments
+    long hireEmployees(String role, int permissions, int count) {
+        return append(Kind.HIRE_EMPLOYEES, role, null, null, permissions, count);
+    }
+
+    private long append(Kind kind, String accountHolder, String counterparty, Bank.AccountType type, long amount) {
+        return append(kind, accountHolder, counterparty, type, 0, amount);
+    }
+
+    // Method to encode one record into the buffer; returns its sequence number for commit.
+    // The first name is the account holder, or the role for role records.
+    private synchronized long append(Kind kind, String accountHolder, String counterparty, Bank.AccountType type,
+                                     int permissions, long amount) {
+        boolean forRole = kind == Kind.DEFINE_ROLE || kind == Kind.HIRE_EMPLOYEES;
+        boolean counted = kind != Kind.INCREMENT_YEAR && kind != Kind.DEFINE_ROLE;
+        byte[] holder = accountHolder == null ? null : accountHolder.getBytes(StandardCharsets.UTF_8);
+        byte[] other = counterparty == null ? null : counterparty.getBytes(StandardCharsets.UTF_8);
+        if ((holder != null && holder.length > MAX_NAME_BYTES) || (other != null && other.length > MAX_NAME_BYTES)) {
+            throw new IllegalArgumentException("Name too long for the journal");
+        }
+        int length = 1 + (holder == null ? 0 : 2 + holder.length) + (other == null ? 0 : 2 + other.length)
+                + (type == null ? 0 : 1) + (forRole ? 4 : 0) + (counted ? 8 : 0);
+
+        if (buffer.remaining() < HEADER_SIZE + length) writeBuffer();
+
+        int start = buffer.position();
+        buffer.position(start + HEADER_SIZE);
+        buffer.put((byte) kind.ordinal());
+        if (holder != null) {
+            buffer.putShort((short) holder.length);
+            buffer.put(holder);
+        }
+        if (other != null) {
+            buffer.putShort((short) other.length);
+            buffer.put(other);
+        }
+        if (type != null) buffer.put((byte) type.ordinal());
+        if (forRole) buffer.putInt(permissions);
+        if (counted) buffer.putLong(amount);
+
+        crc.reset();
+        crc.update(buffer.slice(start + HEADER_SIZE, length));
+        buffer.putInt(start, length);
+        buffer.putInt(start + 4, (int) crc.getValue());
+
+        return ++appendedSequence;
+    }
+
+    // Method to make a record durable according to the sync policy
+    void commit(long sequence) {
+        switch (policy) {
+            case EVERY_OPERATION -> {
+                if (durableSequence < sequence) flush(true);
+            }
+            case NONE -> {
+                synchronized (this) {
+                    if (writtenSequence < sequence) writeBuffer();
+                }
+            }
+            case BATCHED -> { }
+        }
+    }
+
+    // Whoever gets here first writes and fsyncs everything appended so far
+    private synchronized void flush(boolean force) {
+        long sequence = appendedSequence;
+        if (durableSequence >= sequence) return;
+
+        writeBuffer();
+        try {
+            if (force) channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        durableSequence = sequence;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush(true);
+        } catch (UncheckedIOException e) {
+            System.err.println("Journal flush failed: " + e.getMessage());
+        }
+    }
+
+    private void writeBuffer() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) channel.write(buffer);
+        } catch (IOException e) {
+            // The records were already acknowledged, so whatever did not reach the file stays
+            // buffered and the next write carries on from where this one stopped
+            buffer.compact();
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+        writtenSequence = appendedSequence;
+    }
+
+    Path getDirectory() { return directory; }
+
+    @Override
+    public synchronized void close() {
+        if (flusher != null) flusher.shutdown();
+        flush(policy != SyncPolicy.NONE);
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
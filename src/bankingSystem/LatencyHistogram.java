@@ -0,0 +1,92 @@
+package bankingSystem;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+
+// LatencyHistogram class
+// Log-linear histogram of durations in nanoseconds, in the style of HdrHistogram: each power
+// of two is split into SUB_BUCKETS linear buckets, so any recorded value is reported within
+// about 3% of itself, over the whole long range, in 15 KB of counters per stripe.
+// Threads record into one of STRIPES copies of the counters, picked by thread id, so
+// concurrent recorders rarely share a cache line; reads add the stripes up. A stripe is
+// allocated the first time a thread records into it, and after that recording is a couple
+// of atomic adds and never allocates or locks.
+final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+    // A power of two; stripes nobody records into are never allocated
+    private static final int STRIPES = 8;
+
+    private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<>(STRIPES);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        stripe().incrementAndGet(index(nanos));
+        count.increment();
+        total.add(nanos);
+
+        long seen = max.get();
+        while (nanos > seen && !max.compareAndSet(seen, nanos)) seen = max.get();
+    }
+
+    private AtomicLongArray stripe() {
+        int i = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        AtomicLongArray counts = stripes.get(i);
+        if (counts == null && !stripes.compareAndSet(i, null, counts = new AtomicLongArray(BUCKETS))) counts = stripes.get(i);
+        return counts;
+    }
+
+    // Values below 2 * SUB_BUCKETS get a bucket each; above that, the top SUB_BUCKET_BITS + 1
+    // bits pick the bucket within the value's power of two
+    private static int index(long value) {
+        if (value < 2 * SUB_BUCKETS) return (int) value;
+        int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS - 1;
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    // Method to give the highest value that falls in a bucket
+    private static long upperBound(int index) {
+        if (index < 2 * SUB_BUCKETS) return index;
+        int shift = index / SUB_BUCKETS - 1;
+        long lowest = (long) (index % SUB_BUCKETS + SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    long count() { return count.sum(); }
+
+    long max() { return max.get(); }
+
+    double mean() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) total.sum() / n;
+    }
+
+    // Method to estimate the value below which the given fraction of recordings fall.
+    // Counters are read one by one while recording goes on, so under load this is approximate.
+    long percentile(double fraction) {
+        long[] counts = new long[BUCKETS];
+        long n = 0;
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            AtomicLongArray striped = stripes.get(stripe);
+            if (striped == null) continue;
+            for (int i = 0; i < BUCKETS; i++) counts[i] += striped.get(i);
+        }
+        for (long bucket : counts) n += bucket;
+        if (n == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(fraction * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(upperBound(i), max.get());
+        }
+        return max.get();
+    }
+}
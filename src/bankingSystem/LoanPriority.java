@@ -0,0 +1,10 @@
+package bankingSystem;
+
+
+// LoanPriority enum
+// Order in which pending loans are approved; requests that tie are approved oldest first
+public enum LoanPriority {
+    AGE,            // first come, first served
+    AMOUNT,         // smallest amount first
+    ACCOUNT_TYPE    // fixed deposit, then savings, then student accounts
+}
@@ -0,0 +1,151 @@
+package bankingSystem;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+// LoanQueue class
+// Pending loan requests ordered by a LoanPriority. Each request gets a unique arrival number,
+// which breaks ties and keeps the ordering total. The queue sits on a concurrent skip list, so
+// sessions requesting and approving loans never wait on a common lock.
+// With coalescing on, a request from a holder whose newest loan is still undecided is added to
+// that loan instead of queueing another one.
+final class LoanQueue {
+    // Loan class
+    // requested fixes the loan's place in the queue; amount also includes merged requests and
+    // is guarded by the account's monitor
+    static final class Loan {
+        final Account account;
+        final String accountHolder;
+        final long requested;
+        final long arrival;
+        long amount;
+
+        private Loan(Account account, String accountHolder, long amount, long arrival) {
+            this.account = account;
+            this.accountHolder = accountHolder;
+            this.requested = amount;
+            this.arrival = arrival;
+            this.amount = amount;
+        }
+    }
+
+    private final AtomicLong arrivals;
+    // The skip list's own size() walks the whole list
+    private final AtomicInteger size;
+    private volatile ConcurrentSkipListSet<Loan> loans;
+    private volatile boolean coalescing;
+
+    // Newest undecided loan per account, the target for coalescing
+    private final Map<Account, Loan> newest;
+    // Every undecided loan per account in arrival order, guarded by the account's monitor
+    private final Map<Account, ArrayDeque<Loan>> byAccount;
+
+    LoanQueue(LoanPriority priority) {
+        this.arrivals = new AtomicLong();
+        this.size = new AtomicInteger();
+        this.loans = new ConcurrentSkipListSet<>(order(priority));
+        this.newest = new ConcurrentHashMap<>();
+        this.byAccount = new ConcurrentHashMap<>();
+    }
+
+    private static Comparator<Loan> order(LoanPriority priority) {
+        Comparator<Loan> byArrival = Comparator.comparingLong(loan -> loan.arrival);
+        return switch (priority) {
+            case AGE -> byArrival;
+            case AMOUNT -> Comparator.comparingLong((Loan loan) -> loan.requested).thenComparing(byArrival);
+            case ACCOUNT_TYPE -> Comparator.comparingInt((Loan loan) -> typeRank(loan.account.getType())).thenComparing(byArrival);
+        };
+    }
+
+    private static int typeRank(Bank.AccountType type) {
+        return switch (type) {
+            case FIXED_DEPOSIT_ACCOUNT -> 0;
+            case SAVINGS_ACCOUNT -> 1;
+            case STUDENT_ACCOUNT -> 2;
+        };
+    }
+
+    // Method to queue a request, or merge it when coalescing; returns true if it was merged.
+    // Called with the account's monitor held.
+    boolean request(Account account, String accountHolder, long amount) {
+        if (coalescing && merge(account, amount)) return true;
+        add(account, accountHolder, amount);
+        return false;
+    }
+
+    // Method to queue a request as a loan of its own. Called with the account's monitor held.
+    void add(Account account, String accountHolder, long amount) {
+        Loan loan = new Loan(account, accountHolder, amount, arrivals.getAndIncrement());
+        newest.put(account, loan);
+        byAccount.computeIfAbsent(account, key -> new ArrayDeque<>()).addLast(loan);
+        loans.add(loan);
+        size.incrementAndGet();
+    }
+
+    // Method to add an amount to the account's newest undecided loan, if there is one.
+    // Called with the account's monitor held.
+    boolean merge(Account account, long amount) {
+        Loan target = newest.get(account);
+        if (target == null) return false;
+        target.amount += amount;
+        return true;
+    }
+
+    // Method to take the highest-priority loan, or null if none is pending
+    Loan poll() {
+        Loan loan = loans.pollFirst();
+        if (loan != null) size.decrementAndGet();
+        return loan;
+    }
+
+    // Method to record that a polled loan was approved or rejected. Called with the account's monitor held.
+    void decided(Loan loan) {
+        newest.remove(loan.account, loan);
+        byAccount.computeIfPresent(loan.account, (account, pending) -> {
+            pending.remove(loan);
+            return pending.isEmpty() ? null : pending;
+        });
+    }
+
+    boolean isEmpty() { return loans.isEmpty(); }
+
+    int size() { return size.get(); }
+
+    // Method to take out the account's oldest pending loan with this amount, for journal replay.
+    // Only that account's own loans are searched. Called with the account's monitor held.
+    Loan remove(Account account, long amount) {
+        ArrayDeque<Loan> pending = byAccount.get(account);
+        if (pending == null) return null;
+        for (Loan loan : pending) {
+            if (loan.amount != amount) continue;
+            if (!loans.remove(loan)) return null;
+            size.decrementAndGet();
+            decided(loan);
+            return loan;
+        }
+        return null;
+    }
+
+    // Method to list the pending loans in arrival order
+    Loan[] toArray() {
+        Loan[] pending = loans.toArray(new Loan[0]);
+        Arrays.sort(pending, Comparator.comparingLong(loan -> loan.arrival));
+        return pending;
+    }
+
+    void setCoalescing(boolean coalescing) { this.coalescing = coalescing; }
+
+    // Method to reorder the queue; the caller makes sure nobody adds or polls meanwhile
+    void setPriority(LoanPriority priority) {
+        ConcurrentSkipListSet<Loan> reordered = new ConcurrentSkipListSet<>(order(priority));
+        reordered.addAll(loans);
+        loans = reordered;
+    }
+}
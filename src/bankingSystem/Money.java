@@ -0,0 +1,74 @@
+package bankingSystem;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+
+// Money class
+// Amounts are scaled longs in minor units (cents), rates are scaled longs in millionths.
+// All methods are static and, short of an overflowing product, allocation-free so they can be
+// used on the year-end path. Results that would not fit in a long saturate instead of wrapping.
+final class Money {
+    static final long SCALE = 100;
+    static final long RATE_SCALE = 1_000_000;
+    // Largest amount, in minor units, that can be typed in: beyond 2^53 a double no longer holds every cent
+    static final long MAX_AMOUNT = 1L << 53;
+
+    private Money() {}
+
+    static long of(double amount) {
+        double scaled = amount * SCALE;
+        if (!(Math.abs(scaled) <= MAX_AMOUNT)) throw new NumberFormatException("Amount out of range: " + amount);
+        return Math.round(scaled);
+    }
+
+    static double toDouble(long amount) { return (double) amount / SCALE; }
+
+    // Method to print an amount the way it is typed: no decimals for whole amounts
+    static String format(long amount) {
+        return amount % SCALE == 0 ? Long.toString(amount / SCALE) : Double.toString(toDouble(amount));
+    }
+
+    static long rate(double rate) { return Math.round(rate * RATE_SCALE); }
+
+    static double rateToDouble(long rate) { return (double) rate / RATE_SCALE; }
+
+    // Method to add two amounts, saturating at the ends of the long range
+    static long add(long a, long b) {
+        long sum = a + b;
+        if (((a ^ sum) & (b ^ sum)) < 0) return a < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        return sum;
+    }
+
+    // Method to compute amount * rate, rounded back to minor units with the given mode
+    static long applyRate(long amount, long rate, RoundingMode mode) {
+        long product = amount * rate;
+        if (Math.multiplyHigh(amount, rate) != product >> 63) return applyWideRate(amount, rate, mode);
+        long quotient = product / RATE_SCALE;
+        long remainder = product % RATE_SCALE;
+        if (remainder == 0) return quotient;
+
+        int sign = product < 0 ? -1 : 1;
+        long twice = Math.abs(remainder) * 2;
+        boolean awayFromZero = switch (mode) {
+            case UP -> true;
+            case DOWN -> false;
+            case CEILING -> sign > 0;
+            case FLOOR -> sign < 0;
+            case HALF_UP -> twice >= RATE_SCALE;
+            case HALF_DOWN -> twice > RATE_SCALE;
+            case HALF_EVEN -> twice > RATE_SCALE || (twice == RATE_SCALE && (quotient & 1) != 0);
+            case UNNECESSARY -> throw new ArithmeticException("Rounding necessary");
+        };
+
+        return awayFromZero ? quotient + sign : quotient;
+    }
+
+    // Slow path for a product that needs more than 64 bits
+    private static long applyWideRate(long amount, long rate, RoundingMode mode) {
+        BigDecimal result = BigDecimal.valueOf(amount).multiply(BigDecimal.valueOf(rate))
+                .divide(BigDecimal.valueOf(RATE_SCALE), 0, mode);
+        if (result.toBigInteger().bitLength() < Long.SIZE) return result.longValue();
+        return result.signum() > 0 ? Long.MAX_VALUE : Long.MIN_VALUE;
+    }
+}
@@ -0,0 +1,32 @@
+package bankingSystem;
+
+
+// OperationKind enum
+// Command keyword an operation history entry was parsed from; OTHER keeps unparsed text
+public enum OperationKind {
+    OPEN("open"),
+    DEPOSIT("deposit"),
+    WITHDRAW("withdraw"),
+    REQUEST("request"),
+    QUERY("query"),
+    CLOSE("close"),
+    LOOKUP("lookup"),
+    APPROVE("approve"),
+    CHANGE("change"),
+    SEE("see"),
+    TRANSFER("transfer"),
+    OTHER(null);
+
+    private final String keyword;
+
+    OperationKind(String keyword) { this.keyword = keyword; }
+
+    String getKeyword() { return keyword; }
+
+    static OperationKind parse(String keyword) {
+        for (OperationKind kind : values()) {
+            if (kind.keyword != null && kind.keyword.equalsIgnoreCase(keyword)) return kind;
+        }
+        return OTHER;
+    }
+}
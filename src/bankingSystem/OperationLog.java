@@ -0,0 +1,324 @@
+package bankingSystem;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+// OperationLog class
+// Operation history in memory-mapped, fixed-size segment files. Every operation is one
+// fixed-width record, so heap usage does not grow with the history; holder names and
+// command arguments are interned once and referenced by id.
+// Each record also links to the previous record of the same holder and of the same kind,
+// so the holder and kind indexes live in the mapped files too. Years never decrease along
+// the log, which makes the year index a small table of start positions.
+final class OperationLog {
+    // Record layout: [int holder][int argument][long amount][int year][byte kind][3 bytes padding]
+    //                [long previous by holder][long previous by kind]
+    static final int RECORD_SIZE = 40;
+    private static final int HOLDER = 0;
+    private static final int ARGUMENT = 4;
+    private static final int AMOUNT = 8;
+    private static final int YEAR = 16;
+    private static final int KIND = 20;
+    private static final int PREVIOUS_BY_HOLDER = 24;
+    private static final int PREVIOUS_BY_KIND = 32;
+
+    private static final int SEGMENT_SHIFT = 20;
+    private static final int SEGMENT_RECORDS = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = SEGMENT_RECORDS - 1;
+    private static final int NO_ARGUMENT = -1;
+    private static final int NO_LINK = -1;
+    private static final long NONE = -1;
+    private static final OperationKind[] KINDS = OperationKind.values();
+
+    private final Path directory;
+    private final Map<String, Integer> internIds;
+    private final List<String> interned;
+    private volatile MappedByteBuffer[] segments;
+    private volatile long size;
+
+    // Index heads, guarded by this
+    private final Map<String, Integer> holderKeys;
+    private long[] holderHeads;
+    private final long[] kindHeads;
+    private long[] yearStarts;
+    private int lastYear;
+
+    private OperationLog(Path directory) {
+        this.directory = directory;
+        this.internIds = new ConcurrentHashMap<>();
+        this.interned = new ArrayList<>();
+        this.segments = new MappedByteBuffer[0];
+        this.holderKeys = new HashMap<>();
+        this.holderHeads = new long[16];
+        this.kindHeads = new long[KINDS.length];
+        this.yearStarts = new long[] { 0 };
+        Arrays.fill(kindHeads, NONE);
+    }
+
+    // Method to create a log in a fresh temporary directory that is removed on exit
+    static OperationLog temporary() {
+        try {
+            Path directory = Files.createTempDirectory("bank-operations");
+            directory.toFile().deleteOnExit();
+            return new OperationLog(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Method to parse a command line into a record and append it
+    void append(String details, String accountHolder, int year) {
+        int space = details.indexOf(' ');
+        String rest = space < 0 ? "" : details.substring(space + 1);
+        OperationKind kind = OperationKind.parse(space < 0 ? details : details.substring(0, space));
+
+        int argument = NO_ARGUMENT;
+        long amount = 0;
+        switch (kind) {
+            case DEPOSIT, WITHDRAW, REQUEST -> {
+                amount = parseAmount(rest);
+                if (amount < 0) kind = OperationKind.OTHER;
+            }
+            case CHANGE, TRANSFER -> {
+                int split = rest.indexOf(' ');
+                amount = split < 0 ? -1 : parseAmount(rest.substring(split + 1));
+                if (amount < 0) kind = OperationKind.OTHER;
+                else argument = intern(rest.substring(0, split));
+            }
+            case OPEN, LOOKUP, APPROVE -> argument = intern(rest);
+            default -> { }
+        }
+        if (kind == OperationKind.OTHER) argument = intern(details);
+
+        append(intern(accountHolder), accountHolder.toLowerCase(), kind, argument, amount, year);
+    }
+
+    private static long parseAmount(String text) {
+        try {
+            return Money.of(Double.parseDouble(text.replace(",", "")));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private synchronized void append(int holder, String holderKey, OperationKind kind, int argument, long amount, int year) {
+        long index = size;
+        int segment = (int) (index >>> SEGMENT_SHIFT);
+        if (segment == segments.length) segments = Arrays.copyOf(segments, segment + 1);
+        if (segments[segment] == null) segments[segment] = mapSegment(segment);
+
+        // A caller that read the year just before a year-end is recorded in the new year
+        if (year < lastYear) year = lastYear;
+        while (lastYear < year) {
+            if (++lastYear == yearStarts.length) yearStarts = Arrays.copyOf(yearStarts, lastYear * 2);
+            yearStarts[lastYear] = index;
+        }
+
+        // holderHeads keeps index + 1 so that the zero-filled array means "no record yet"
+        int key = holderKeys.computeIfAbsent(holderKey, ignored -> holderKeys.size());
+        if (key == holderHeads.length) holderHeads = Arrays.copyOf(holderHeads, key * 2);
+        long previousByHolder = holderHeads[key] - 1;
+
+        int offset = (int) (index & SEGMENT_MASK) * RECORD_SIZE;
+        MappedByteBuffer buffer = segments[segment];
+        buffer.putInt(offset + HOLDER, holder);
+        buffer.putInt(offset + ARGUMENT, argument);
+        buffer.putLong(offset + AMOUNT, amount);
+        buffer.putInt(offset + YEAR, year);
+        buffer.put(offset + KIND, (byte) kind.ordinal());
+        buffer.putLong(offset + PREVIOUS_BY_HOLDER, previousByHolder);
+        buffer.putLong(offset + PREVIOUS_BY_KIND, kindHeads[kind.ordinal()]);
+
+        holderHeads[key] = index + 1;
+        kindHeads[kind.ordinal()] = index;
+        size = index + 1;
+    }
+
+    private MappedByteBuffer mapSegment(int segment) {
+        Path file = directory.resolve(String.format("operations-%08d.bin", segment));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            file.toFile().deleteOnExit();
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) SEGMENT_RECORDS * RECORD_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int intern(String text) {
+        Integer id = internIds.get(text);
+        if (id != null) return id;
+
+        synchronized (interned) {
+            return internIds.computeIfAbsent(text, key -> {
+                interned.add(key);
+                return interned.size() - 1;
+            });
+        }
+    }
+
+    private String interned(int id) {
+        synchronized (interned) {
+            return interned.get(id);
+        }
+    }
+
+    long size() { return size; }
+
+    // Method to start a zero-copy pass over the history as it is now
+    Cursor cursor() { return new Cursor(size); }
+
+    // Method to run a query using the narrowest index available: holder chain, kind chain or year range
+    synchronized Iterator<OperationQuery.Match> find(OperationQuery query) {
+        Cursor cursor = new Cursor(size);
+
+        if (query.accountHolder != null) {
+            Integer key = holderKeys.get(query.accountHolder.toLowerCase());
+            long head = key == null ? NONE : holderHeads[key] - 1;
+            return ChainIterator.chain(cursor, head, PREVIOUS_BY_HOLDER, query);
+        }
+        if (query.kind != null) {
+            return ChainIterator.chain(cursor, kindHeads[query.kind.ordinal()], PREVIOUS_BY_KIND, query);
+        }
+
+        long from = 0, to = size;
+        if (query.year != OperationQuery.ANY_YEAR) {
+            from = query.year > lastYear ? size : yearStarts[Math.max(query.year, 0)];
+            to = query.year >= lastYear ? size : yearStarts[query.year + 1];
+        }
+        return ChainIterator.range(cursor, from, to, query);
+    }
+
+    // Method to run a query by reading every record back from the newest, without the holder
+    // and kind indexes; the baseline the indexed find is measured against
+    synchronized Iterator<OperationQuery.Match> scan(OperationQuery query) {
+        return ChainIterator.range(new Cursor(size), 0, size, query);
+    }
+
+    // ChainIterator class
+    // Walks records backwards, either along a per-holder/per-kind link or through a plain range
+    private static final class ChainIterator implements Iterator<OperationQuery.Match> {
+        private final Cursor cursor;
+        private final int link;
+        private final long rangeStart;
+        private final OperationQuery query;
+        private long next;
+
+        static ChainIterator chain(Cursor cursor, long head, int link, OperationQuery query) {
+            return new ChainIterator(cursor, head, link, NONE, query);
+        }
+
+        static ChainIterator range(Cursor cursor, long from, long to, OperationQuery query) {
+            return new ChainIterator(cursor, from < to ? to - 1 : NONE, NO_LINK, from, query);
+        }
+
+        private ChainIterator(Cursor cursor, long head, int link, long rangeStart, OperationQuery query) {
+            this.cursor = cursor;
+            this.link = link;
+            this.rangeStart = rangeStart;
+            this.query = query;
+            this.next = head;
+            advance();
+        }
+
+        // Method to move next to the closest record (from next backwards) that matches the query
+        private void advance() {
+            while (next != NONE) {
+                cursor.moveTo(next);
+                int year = cursor.year();
+                if (query.year != OperationQuery.ANY_YEAR && year < query.year) {
+                    next = NONE;
+                    return;
+                }
+                if ((query.year == OperationQuery.ANY_YEAR || year == query.year)
+                        && (query.kind == null || cursor.kind() == query.kind)
+                        && (link != NO_LINK || query.accountHolder == null
+                            || cursor.accountHolder().equalsIgnoreCase(query.accountHolder))) return;
+                next = step();
+            }
+        }
+
+        private long step() {
+            if (link != NO_LINK) return cursor.previous(link);
+            return next > rangeStart ? next - 1 : NONE;
+        }
+
+        @Override
+        public boolean hasNext() { return next != NONE; }
+
+        @Override
+        public OperationQuery.Match next() {
+            if (next == NONE) throw new NoSuchElementException();
+            cursor.moveTo(next);
+            OperationQuery.Match match = new OperationQuery.Match(cursor.accountHolder(), cursor.kind(),
+                    cursor.details(), cursor.year());
+            next = step();
+            advance();
+            return match;
+        }
+    }
+
+    // Cursor class
+    // Reusable view over one record at a time; fields are read straight from the mapped segment
+    final class Cursor {
+        private final long end;
+        private final MappedByteBuffer[] mapped;
+        private long index = -1;
+        private MappedByteBuffer buffer;
+        private int offset;
+
+        private Cursor(long end) {
+            this.end = end;
+            this.mapped = segments;
+        }
+
+        boolean next() {
+            if (index + 1 >= end) return false;
+            moveTo(index + 1);
+            return true;
+        }
+
+        void moveTo(long position) {
+            index = position;
+            buffer = mapped[(int) (position >>> SEGMENT_SHIFT)];
+            offset = (int) (position & SEGMENT_MASK) * RECORD_SIZE;
+        }
+
+        long previous(int link) { return buffer.getLong(offset + link); }
+
+        OperationKind kind() { return KINDS[buffer.get(offset + KIND)]; }
+
+        long amount() { return buffer.getLong(offset + AMOUNT); }
+
+        int year() { return buffer.getInt(offset + YEAR); }
+
+        String accountHolder() { return interned(buffer.getInt(offset + HOLDER)); }
+
+        // Method to rebuild the command text the record was parsed from
+        String details() {
+            OperationKind kind = kind();
+            int argument = buffer.getInt(offset + ARGUMENT);
+            return switch (kind) {
+                case DEPOSIT, WITHDRAW, REQUEST -> kind.getKeyword() + " " + Money.format(amount());
+                case CHANGE, TRANSFER -> kind.getKeyword() + " " + interned(argument) + " " + Money.format(amount());
+                case OPEN, LOOKUP, APPROVE -> kind.getKeyword() + " " + interned(argument);
+                case OTHER -> interned(argument);
+                default -> kind.getKeyword();
+            };
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package bankingSystem;
+
+
+// OperationQuery class
+// Filter over the operation history; any combination of holder, year and kind.
+// Results are produced lazily, newest first.
+public final class OperationQuery {
+    public record Match(String accountHolder, OperationKind kind, String details, int year) {}
+
+    static final int ANY_YEAR = -1;
+
+    final String accountHolder;
+    final int year;
+    final OperationKind kind;
+
+    private OperationQuery(String accountHolder, int year, OperationKind kind) {
+        this.accountHolder = accountHolder;
+        this.year = year;
+        this.kind = kind;
+    }
+
+    public static OperationQuery all() { return new OperationQuery(null, ANY_YEAR, null); }
+
+    public OperationQuery by(String accountHolder) { return new OperationQuery(accountHolder, year, kind); }
+
+    public OperationQuery inYear(int year) {
+        if (year < 0) throw new IllegalArgumentException("Years start at 0: " + year);
+        return new OperationQuery(accountHolder, year, kind);
+    }
+
+    public OperationQuery ofKind(OperationKind kind) { return new OperationQuery(accountHolder, year, kind); }
+}
@@ -0,0 +1,46 @@
+package bankingSystem;
+
+import java.util.Arrays;
+
+
+// RateTable class
+// Immutable set of interest rates, one per account type, in Money rate units. A change makes
+// a new table with the next version number, so whoever holds a table sees one consistent set
+// of rates. Rates are indexed by type ordinal, so a new account type needs no code here.
+final class RateTable {
+    private static final Bank.AccountType[] TYPES = Bank.AccountType.values();
+
+    final int version;
+    private final long[] rates;
+
+    private RateTable(int version, long[] rates) {
+        this.version = version;
+        this.rates = rates;
+    }
+
+    // Method to make the starting table from each type's default rate
+    static RateTable defaults() {
+        long[] rates = new long[TYPES.length];
+        for (Bank.AccountType type : TYPES) rates[type.ordinal()] = type.defaultRate;
+        return new RateTable(0, rates);
+    }
+
+    // Method to rebuild a table from rates saved with toArray; versions restart from zero
+    static RateTable of(long[] rates) {
+        if (rates.length != TYPES.length) throw new IllegalStateException("Expected " + TYPES.length + " rates, found " + rates.length);
+        return new RateTable(0, rates.clone());
+    }
+
+    long rate(Bank.AccountType type) { return rates[type.ordinal()]; }
+
+    RateTable with(Bank.AccountType type, long rate) {
+        long[] changed = rates.clone();
+        changed[type.ordinal()] = rate;
+        return new RateTable(version + 1, changed);
+    }
+
+    long[] toArray() { return rates.clone(); }
+
+    @Override
+    public String toString() { return "v" + version + " " + Arrays.toString(rates); }
+}
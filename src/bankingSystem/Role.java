@@ -0,0 +1,96 @@
+package bankingSystem;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+// Role class
+// A kind of employee and the bitmap of EmployeeOperations it is permitted. Employees are named
+// after their role's code and a number (O1, C3), except the managing director, whose name is
+// the code itself. Redefining a role changes its bitmap in place, so existing employees follow.
+final class Role {
+    static final String MANAGING_DIRECTOR = "MD";
+    static final String OFFICER = "O";
+    static final String CASHIER = "C";
+
+    final String code;
+    private volatile int permissions;
+
+    private Role(String code, int permissions) {
+        this.code = code;
+        this.permissions = permissions;
+    }
+
+    boolean allows(EmployeeOperation operation) { return (permissions & operation.bit()) != 0; }
+
+    int permissions() { return permissions; }
+
+    static int permissions(EmployeeOperation... operations) {
+        int permissions = 0;
+        for (EmployeeOperation operation : operations) permissions |= operation.bit();
+        return permissions;
+    }
+
+    // Roles class
+    // Per-bank table of roles by code
+    static final class Roles {
+        private final Map<String, Role> byCode = new ConcurrentHashMap<>();
+
+        // Method to make the managing director, officer and cashier roles
+        static Roles defaults() {
+            Roles roles = new Roles();
+            roles.define(MANAGING_DIRECTOR, permissions(EmployeeOperation.values()));
+            roles.define(OFFICER, permissions(EmployeeOperation.LOOKUP, EmployeeOperation.APPROVE_LOAN));
+            roles.define(CASHIER, permissions(EmployeeOperation.LOOKUP));
+            return roles;
+        }
+
+        Role get(String code) { return byCode.get(code.toUpperCase()); }
+
+        Collection<Role> all() { return byCode.values(); }
+
+        synchronized Role define(String code, int permissions) {
+            Role role = byCode.get(code.toUpperCase());
+            if (role != null) {
+                role.permissions = permissions;
+                return role;
+            }
+            role = new Role(code.toUpperCase(), permissions);
+            byCode.put(role.code, role);
+            return role;
+        }
+
+        // Method to read role definitions from a properties file of lines like "A = lookup, see",
+        // mapping a role code to the keywords of the operations it is permitted
+        static Map<String, Integer> read(Path file) {
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            Map<String, Integer> definitions = new LinkedHashMap<>();
+            for (String code : properties.stringPropertyNames()) {
+                if (!code.chars().allMatch(Character::isLetter)) {
+                    throw new IllegalArgumentException("Role codes are letters only: " + code);
+                }
+                int permissions = 0;
+                for (String keyword : properties.getProperty(code).split(",")) {
+                    if (!keyword.isBlank()) permissions |= EmployeeOperation.parse(keyword.trim()).bit();
+                }
+                definitions.put(code, permissions);
+            }
+            return definitions;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package bankingSystem;
+
+
+// SessionEventSink class
+// Hands each event to the sink bound to the publishing thread, so a server running each
+// session on its own thread can send a session's bank messages back to that session's client.
+// Threads with nothing bound publish to the fallback. Events must be published on the thread
+// that caused them, so this goes in front of the bank, not behind an AsyncEventSink.
+public class SessionEventSink implements BankEventSink {
+    private final BankEventSink fallback;
+    private final ThreadLocal<BankEventSink> bound = new ThreadLocal<>();
+
+    public SessionEventSink(BankEventSink fallback) { this.fallback = fallback; }
+
+    public void bind(BankEventSink sink) { bound.set(sink); }
+
+    public void unbind() { bound.remove(); }
+
+    @Override
+    public void publish(BankEvent event, String subject, String detail, double amount, double balance) {
+        BankEventSink sink = bound.get();
+        (sink != null ? sink : fallback).publish(event, subject, detail, amount, balance);
+    }
+}
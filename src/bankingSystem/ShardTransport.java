@@ -0,0 +1,16 @@
+package bankingSystem;
+
+
+// ShardTransport interface
+// Carries two-phase transfer messages from ShardedBank to its shards. A leg is one side of a
+// transfer; its id is unique across the sharded bank. A transport to another process would
+// send these same four calls over the wire.
+interface ShardTransport {
+    boolean prepareDebit(int shard, long leg, String accountHolder, long amount);
+
+    boolean prepareCredit(int shard, long leg, String accountHolder, long amount);
+
+    void commit(int shard, long leg);
+
+    void abort(int shard, long leg);
+}
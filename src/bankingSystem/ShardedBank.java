@@ -0,0 +1,144 @@
+package bankingSystem;
+
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+// ShardedBank class
+// Several Bank shards (branches), each with its own accounts, internal funds and loan queue.
+// Account holders are routed to a shard by the hash of their lower-cased name, so the shard
+// count must stay the same for a given journal directory. Transfers between holders go through
+// a two-phase protocol: both legs are prepared, then both are committed or the debit is released.
+public class ShardedBank implements AutoCloseable {
+    private final Bank[] shards;
+    private final ShardTransport transport;
+    private final BankEventSink events;
+    private final AtomicLong transfers;
+
+    public ShardedBank(int shardCount, BankEventSink events) {
+        this(newShards(shardCount, events), events);
+    }
+
+    private ShardedBank(Bank[] shards, BankEventSink events) {
+        this(shards, new InProcessTransport(shards), events);
+    }
+
+    ShardedBank(Bank[] shards, ShardTransport transport, BankEventSink events) {
+        this.shards = shards;
+        this.transport = transport;
+        this.events = events;
+        this.transfers = new AtomicLong();
+    }
+
+    private static Bank[] newShards(int shardCount, BankEventSink events) {
+        if (shardCount < 1) throw new IllegalArgumentException("A sharded bank needs at least one shard");
+        Bank[] shards = new Bank[shardCount];
+        for (int i = 0; i < shardCount; i++) shards[i] = new Bank(events);
+        return shards;
+    }
+
+    // Method to recover every shard from its own subdirectory shard-<n> of the given directory
+    public static ShardedBank recover(Path directory, int shardCount, Journal.SyncPolicy policy, BankEventSink events) {
+        if (shardCount < 1) throw new IllegalArgumentException("A sharded bank needs at least one shard");
+        Bank[] shards = new Bank[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = Bank.recover(directory.resolve(String.format("shard-%03d", i)), policy, events);
+        }
+        return new ShardedBank(shards, events);
+    }
+
+    public int getShardCount() { return shards.length; }
+
+    int shardOf(String accountHolder) {
+        return Math.floorMod(HolderRegistry.hash(accountHolder), shards.length);
+    }
+
+    // Method to find the shard that owns a holder, for calls made directly on Bank or Account
+    public Bank route(String accountHolder) { return shards[shardOf(accountHolder)]; }
+
+    public Account createAccount(String accountHolder, String accountType, double initialDeposit) {
+        return route(accountHolder).createAccount(accountHolder, accountType, initialDeposit);
+    }
+
+    public boolean isAccountExist(String accountHolder) { return route(accountHolder).isAccountExist(accountHolder); }
+
+    public void deposit(String accountHolder, double amount) {
+        Bank shard = route(accountHolder);
+        Account account = shard.getAccount(accountHolder);
+        if (account != null) account.deposit(amount, shard);
+        else events.publish(BankEvent.ACCOUNT_NOT_FOUND, accountHolder, null, 0, 0);
+    }
+
+    public void withdraw(String accountHolder, double amount) {
+        Bank shard = route(accountHolder);
+        Account account = shard.getAccount(accountHolder);
+        if (account != null) account.withdraw(amount, shard);
+        else events.publish(BankEvent.ACCOUNT_NOT_FOUND, accountHolder, null, 0, 0);
+    }
+
+    public void requestLoan(String accountHolder, double amount) {
+        route(accountHolder).requestLoan(accountHolder, Money.of(amount));
+    }
+
+    public double queryBalance(String accountHolder) { return route(accountHolder).queryBalance(accountHolder); }
+
+    public double lookup(String accountHolder) { return route(accountHolder).lookup(accountHolder); }
+
+    // Method to decide pending loans on every shard; each shard checks its own funds
+    public void approveLoan() {
+        for (Bank shard : shards) shard.approveLoan();
+    }
+
+    public boolean isLoanRequestPending() {
+        for (Bank shard : shards) if (shard.isLoanRequestPending()) return true;
+        return false;
+    }
+
+    public void changeInterestRate(String accountType, double newRate) {
+        for (Bank shard : shards) shard.changeInterestRate(accountType, newRate);
+    }
+
+    // Method to report the internal funds of all shards together
+    public double seeInternalFund() {
+        long total = 0;
+        for (Bank shard : shards) total += shard.getInternalFunds();
+        double funds = Money.toDouble(total);
+        events.publish(BankEvent.INTERNAL_FUNDS, null, null, funds, 0);
+        return funds;
+    }
+
+    public void incrementYear() {
+        for (Bank shard : shards) shard.incrementYear();
+    }
+
+    // Method to move money between two holders on any shards. Within one shard this is that
+    // shard's own atomic transfer. Across shards the debit is prepared first so a failing credit
+    // only has to release a reservation; nothing is applied until both legs agree.
+    public boolean transfer(String fromHolder, String toHolder, double amount) {
+        long value = Money.of(amount);
+        int source = shardOf(fromHolder), target = shardOf(toHolder);
+        if (source == target) return shards[source].transfer(fromHolder, toHolder, value);
+
+        long debit = transfers.getAndIncrement() * 2, credit = debit + 1;
+
+        boolean prepared = transport.prepareDebit(source, debit, fromHolder, value);
+        if (prepared && !transport.prepareCredit(target, credit, toHolder, value)) {
+            transport.abort(source, debit);
+            prepared = false;
+        }
+
+        if (prepared) {
+            transport.commit(source, debit);
+            transport.commit(target, credit);
+            events.publish(BankEvent.TRANSFERRED, fromHolder, toHolder, amount, 0);
+        } else {
+            events.publish(BankEvent.TRANSFER_FAILED, fromHolder, toHolder, amount, 0);
+        }
+        return prepared;
+    }
+
+    @Override
+    public void close() {
+        for (Bank shard : shards) shard.close();
+    }
+}
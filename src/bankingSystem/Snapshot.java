@@ -0,0 +1,239 @@
+package bankingSystem;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+
+// Snapshot class
+// Point-in-time copy of the whole Bank state. It is captured under the bank's write lock
+// (a few array copies), then written to snapshot-<segment>.snap without holding any lock.
+// The file covers every journal record in segments below <segment>.
+final class Snapshot {
+    private static final int MAGIC = 0x42414E4B;
+    private static final int VERSION = 2;
+    // Version 1 kept only officer and cashier counts; it is still read
+    private static final int VERSION_WITHOUT_ROLES = 1;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".snap";
+    private static final Bank.AccountType[] TYPES = Bank.AccountType.values();
+
+    final long segment;
+    final int year;
+    final long internalFunds;
+    final long[] interestRates;
+    // Employee roles with their permissions and how many of each have been hired
+    final String[] roleCodes;
+    final int[] rolePermissions;
+    final int[] staff;
+
+    // Account columns, indexed by account id
+    final String[] holders;
+    final byte[] types;
+    final long[] balances;
+    final long[] loanAmounts;
+    final byte[] flags;
+
+    // Pending loan requests in queue order
+    final String[] loanHolders;
+    final long[] loanAmountsRequested;
+
+    Snapshot(long segment, int year, long internalFunds, long[] interestRates,
+             String[] roleCodes, int[] rolePermissions, int[] staff,
+             String[] holders, byte[] types, long[] balances, long[] loanAmounts, byte[] flags,
+             String[] loanHolders, long[] loanAmountsRequested) {
+        this.segment = segment;
+        this.year = year;
+        this.internalFunds = internalFunds;
+        this.interestRates = interestRates;
+        this.roleCodes = roleCodes;
+        this.rolePermissions = rolePermissions;
+        this.staff = staff;
+        this.holders = holders;
+        this.types = types;
+        this.balances = balances;
+        this.loanAmounts = loanAmounts;
+        this.flags = flags;
+        this.loanHolders = loanHolders;
+        this.loanAmountsRequested = loanAmountsRequested;
+    }
+
+    Bank.AccountType type(int id) { return TYPES[types[id]]; }
+
+    // Method to write the snapshot to a temporary file and atomically move it into place
+    void write(Path directory) {
+        Path target = directory.resolve(fileName(segment));
+        Path temporary = directory.resolve(fileName(segment) + ".tmp");
+
+        try {
+            CRC32C crc = new CRC32C();
+            try (OutputStream file = Files.newOutputStream(temporary);
+                 CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(file, 1 << 16), crc);
+                 DataOutputStream out = new DataOutputStream(checked)) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(segment);
+                out.writeInt(year);
+                out.writeLong(internalFunds);
+                out.writeInt(interestRates.length);
+                for (long rate : interestRates) out.writeLong(rate);
+                out.writeInt(roleCodes.length);
+                for (int i = 0; i < roleCodes.length; i++) {
+                    out.writeUTF(roleCodes[i]);
+                    out.writeInt(rolePermissions[i]);
+                    out.writeInt(staff[i]);
+                }
+
+                out.writeInt(holders.length);
+                for (int id = 0; id < holders.length; id++) {
+                    out.writeUTF(holders[id]);
+                    out.writeByte(types[id]);
+                    out.writeLong(balances[id]);
+                    out.writeLong(loanAmounts[id]);
+                    out.writeByte(flags[id]);
+                }
+
+                out.writeInt(loanHolders.length);
+                for (int i = 0; i < loanHolders.length; i++) {
+                    out.writeUTF(loanHolders[i]);
+                    out.writeLong(loanAmountsRequested[i]);
+                }
+
+                // The checksum covers everything before it
+                out.writeLong(crc.getValue());
+            }
+
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Method to load the newest readable snapshot, or null if there is none
+    static Snapshot loadLatest(Path directory) {
+        if (!Files.isDirectory(directory)) return null;
+
+        List<Path> snapshots = list(directory);
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            try {
+                return read(snapshots.get(i));
+            } catch (IOException e) {
+                System.err.println("Skipping unreadable snapshot " + snapshots.get(i) + ": " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    // Method to delete snapshots older than the given one
+    static void deleteBefore(Path directory, long segment) {
+        try {
+            for (Path snapshot : list(directory)) {
+                if (segmentOf(snapshot) < segment) Files.deleteIfExists(snapshot);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Snapshot read(Path path) throws IOException {
+        CRC32C crc = new CRC32C();
+        try (InputStream file = Files.newInputStream(path);
+             CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(file, 1 << 16), crc);
+             DataInputStream in = new DataInputStream(checked)) {
+            if (in.readInt() != MAGIC) throw new IOException("Not a bank snapshot");
+            int version = in.readInt();
+            if (version != VERSION && version != VERSION_WITHOUT_ROLES) throw new IOException("Unknown snapshot version " + version);
+
+            long segment = in.readLong();
+            int year = in.readInt();
+            long internalFunds = in.readLong();
+            long[] interestRates = new long[in.readInt()];
+            for (int i = 0; i < interestRates.length; i++) interestRates[i] = in.readLong();
+            String[] roleCodes;
+            int[] rolePermissions;
+            int[] staff;
+            if (version == VERSION_WITHOUT_ROLES) {
+                // Only the built-in officer and cashier roles existed, with their default permissions
+                Role.Roles defaults = Role.Roles.defaults();
+                roleCodes = new String[] { Role.OFFICER, Role.CASHIER };
+                rolePermissions = new int[] { defaults.get(Role.OFFICER).permissions(), defaults.get(Role.CASHIER).permissions() };
+                staff = new int[] { in.readInt(), in.readInt() };
+            } else {
+                roleCodes = new String[in.readInt()];
+                rolePermissions = new int[roleCodes.length];
+                staff = new int[roleCodes.length];
+                for (int i = 0; i < roleCodes.length; i++) {
+                    roleCodes[i] = in.readUTF();
+                    rolePermissions[i] = in.readInt();
+                    staff[i] = in.readInt();
+                }
+            }
+
+            int count = in.readInt();
+            String[] holders = new String[count];
+            byte[] types = new byte[count];
+            long[] balances = new long[count];
+            long[] loanAmounts = new long[count];
+            byte[] flags = new byte[count];
+            for (int id = 0; id < count; id++) {
+                holders[id] = in.readUTF();
+                types[id] = in.readByte();
+                balances[id] = in.readLong();
+                loanAmounts[id] = in.readLong();
+                flags[id] = in.readByte();
+            }
+
+            int loans = in.readInt();
+            String[] loanHolders = new String[loans];
+            long[] loanAmountsRequested = new long[loans];
+            for (int i = 0; i < loans; i++) {
+                loanHolders[i] = in.readUTF();
+                loanAmountsRequested[i] = in.readLong();
+            }
+
+            long expected = crc.getValue();
+            if (in.readLong() != expected) throw new IOException("Snapshot checksum mismatch");
+
+            return new Snapshot(segment, year, internalFunds, interestRates, roleCodes, rolePermissions, staff,
+                    holders, types, balances, loanAmounts, flags, loanHolders, loanAmountsRequested);
+        }
+    }
+
+    private static List<Path> list(Path directory) {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+            }).sorted().toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long segmentOf(Path snapshot) {
+        String name = snapshot.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    private static String fileName(long segment) {
+        return String.format("%s%016d%s", PREFIX, segment, SUFFIX);
+    }
+}
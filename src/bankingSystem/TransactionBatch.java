@@ -0,0 +1,46 @@
+package bankingSystem;
+
+import java.util.Arrays;
+
+
+// TransactionBatch class
+// Columnar batch of deposits and withdrawals, e.g. one payroll or settlement file, for
+// Bank.applyBatch. Rows are kept in parallel arrays; the result is one status byte per row.
+public final class TransactionBatch {
+    public enum Operation { DEPOSIT, WITHDRAW }
+
+    // Row statuses returned by Bank.applyBatch
+    public static final byte APPLIED = 0;
+    public static final byte ACCOUNT_NOT_FOUND = 1;
+    public static final byte REJECTED = 2;
+
+    private static final Operation[] OPERATIONS = Operation.values();
+
+    String[] holders;
+    byte[] operations;
+    long[] amounts;
+    private int size;
+
+    public TransactionBatch(int capacity) {
+        this.holders = new String[Math.max(capacity, 1)];
+        this.operations = new byte[holders.length];
+        this.amounts = new long[holders.length];
+    }
+
+    public TransactionBatch add(String accountHolder, Operation operation, double amount) {
+        if (size == holders.length) {
+            holders = Arrays.copyOf(holders, size * 2);
+            operations = Arrays.copyOf(operations, size * 2);
+            amounts = Arrays.copyOf(amounts, size * 2);
+        }
+        holders[size] = accountHolder;
+        operations[size] = (byte) operation.ordinal();
+        amounts[size] = Money.of(amount);
+        size++;
+        return this;
+    }
+
+    public int size() { return size; }
+
+    Operation operation(int row) { return OPERATIONS[operations[row]]; }
+}
@@ -0,0 +1,68 @@
+package bankingSystem;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+
+// AccrualModeTest class
+// Lazy accrual must be invisible: the same randomized workload, with interest rates changing
+// between year-ends, leaves an eagerly and a lazily accruing bank in exactly the same state.
+class AccrualModeTest {
+    private static final String[] TYPES = { "savings", "student", "fixed deposit" };
+    private static final double[] INITIAL_DEPOSITS = { 5_000, 2_000, 150_000 };
+    private static final int ACCOUNTS = 90;
+    private static final int YEARS = 12;
+    private static final int OPERATIONS_PER_YEAR = 400;
+
+    @Test
+    void eagerAndLazyAccrualAgree() {
+        for (long seed = 1; seed <= 5; seed++) {
+            Bank eager = run(AccrualMode.EAGER, seed);
+            Bank lazy = run(AccrualMode.LAZY, seed);
+
+            // Switching to eager settles every account the lazy bank has not touched since a year-end
+            lazy.setAccrualMode(AccrualMode.EAGER);
+            assertEquals(eager.getInternalFunds(), lazy.getInternalFunds(), "internal funds, seed " + seed);
+            for (int i = 0; i < ACCOUNTS; i++) {
+                Account expected = eager.getAccount(holder(i));
+                Account actual = lazy.getAccount(holder(i));
+                String where = holder(i) + ", seed " + seed;
+                assertEquals(expected.getBalance(), actual.getBalance(), "balance of " + where);
+                assertEquals(expected.getLoanAmount(), actual.getLoanAmount(), "loan of " + where);
+                assertEquals(expected.getPendingLoans(), actual.getPendingLoans(), "pending loans of " + where);
+                assertEquals(expected.store.isMatured(expected.id), actual.store.isMatured(actual.id), "maturity of " + where);
+            }
+            assertEquals(eager.verifyTotals(), lazy.verifyTotals());
+        }
+    }
+
+    private static Bank run(AccrualMode mode, long seed) {
+        Bank bank = new Bank(BankEventSink.NONE);
+        bank.setAccrualMode(mode);
+        for (int i = 0; i < ACCOUNTS; i++) bank.createAccount(holder(i), TYPES[i % TYPES.length], INITIAL_DEPOSITS[i % TYPES.length]);
+
+        Random random = new Random(seed);
+        for (int year = 0; year < YEARS; year++) {
+            for (int i = 0; i < OPERATIONS_PER_YEAR; i++) {
+                String holder = holder(random.nextInt(ACCOUNTS));
+                long amount = Money.of(random.nextInt(6_000_000) / 100.0);
+                switch (random.nextInt(8)) {
+                    case 0, 1 -> bank.deposit(holder, amount);
+                    case 2, 3 -> bank.withdraw(holder, amount);
+                    case 4 -> bank.transfer(holder, holder(random.nextInt(ACCOUNTS)), amount);
+                    case 5 -> bank.requestLoan(holder, amount);
+                    case 6 -> bank.approveLoan();
+                    default -> bank.queryBalance(holder);
+                }
+            }
+            // Rates change only between year-ends, so every year accrues at its own rates
+            bank.changeInterestRate(TYPES[random.nextInt(TYPES.length)], random.nextInt(1_500) / 100.0);
+            bank.incrementYear();
+        }
+        return bank;
+    }
+
+    private static String holder(int i) { return "holder" + i; }
+}
@@ -0,0 +1,120 @@
+package bankingSystem;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+
+// AsyncEventSinkTest class
+// Publishers must never wait forever: not on a closed sink, a stalled delegate or a failing one
+class AsyncEventSinkTest {
+
+    @Test
+    @Timeout(10)
+    void failingDelegateKeepsDelivering() {
+        AtomicInteger delivered = new AtomicInteger();
+        AsyncEventSink sink = new AsyncEventSink((event, subject, detail, amount, balance) -> {
+            if (delivered.incrementAndGet() % 20 == 0) throw new IllegalStateException("delegate failed");
+        }, 4);
+
+        for (int i = 0; i < 100; i++) sink.publish(BankEvent.ACCOUNT_CREATED, "holder" + i, null, i, i);
+        sink.close();
+
+        assertEquals(100, delivered.get());
+    }
+
+    @Test
+    @Timeout(10)
+    void publishingAfterCloseIsRejected() {
+        AsyncEventSink sink = new AsyncEventSink(BankEventSink.NONE, 4);
+        sink.close();
+
+        assertThrows(IllegalStateException.class, () -> sink.publish(BankEvent.ACCOUNT_CREATED, "holder", null, 0, 0));
+    }
+
+    @Test
+    @Timeout(10)
+    void publishersWaitingOnAFullRingFinishBeforeCloseReturns() throws InterruptedException {
+        AtomicInteger delivered = new AtomicInteger();
+        CountDownLatch stalled = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AsyncEventSink sink = new AsyncEventSink((event, subject, detail, amount, balance) -> {
+            stalled.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            delivered.incrementAndGet();
+        }, 2);
+
+        sink.publish(BankEvent.ACCOUNT_CREATED, "first", null, 0, 0);
+        stalled.await();
+        sink.publish(BankEvent.ACCOUNT_CREATED, "second", null, 0, 0);
+
+        Thread publisher = new Thread(() -> sink.publish(BankEvent.ACCOUNT_CREATED, "third", null, 0, 0));
+        publisher.start();
+        Thread closer = new Thread(sink::close);
+        closer.start();
+        release.countDown();
+
+        publisher.join();
+        closer.join();
+        assertEquals(3, delivered.get());
+    }
+
+    @Test
+    @Timeout(10)
+    void publishersWaitingOnADeadSinkGiveUp() throws InterruptedException {
+        CountDownLatch stalled = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AsyncEventSink sink = new AsyncEventSink((event, subject, detail, amount, balance) -> {
+            stalled.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new AssertionError("the event thread died");
+        }, 2);
+
+        sink.publish(BankEvent.ACCOUNT_CREATED, "first", null, 0, 0);
+        stalled.await();
+        sink.publish(BankEvent.ACCOUNT_CREATED, "second", null, 0, 0);
+        release.countDown();
+
+        assertThrows(IllegalStateException.class, () -> sink.publish(BankEvent.ACCOUNT_CREATED, "third", null, 0, 0));
+    }
+
+    @Test
+    @Timeout(10)
+    void everyEventAcceptedWhileClosingIsDelivered() throws InterruptedException {
+        for (int round = 0; round < 200; round++) {
+            AtomicInteger delivered = new AtomicInteger();
+            AsyncEventSink sink = new AsyncEventSink((event, subject, detail, amount, balance) -> delivered.incrementAndGet(), 8);
+            AtomicInteger accepted = new AtomicInteger();
+            Thread[] publishers = new Thread[4];
+            for (int t = 0; t < publishers.length; t++) {
+                publishers[t] = new Thread(() -> {
+                    try {
+                        while (true) {
+                            sink.publish(BankEvent.DEPOSITED, "holder", null, 1, 1);
+                            accepted.incrementAndGet();
+                        }
+                    } catch (IllegalStateException closed) {
+                        // The sink closed; every event published before this one counts
+                    }
+                });
+                publishers[t].start();
+            }
+            Thread.sleep(2);
+            sink.close();
+            for (Thread publisher : publishers) publisher.join();
+
+            assertEquals(accepted.get(), delivered.get(), "round " + round);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package bankingSystem;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+// BankConcurrencyTest class
+// Stress test for concurrent account operations: many threads deposit, withdraw, transfer,
+// request and approve loans on a shared set of accounts, then the books must still balance.
+// No year-end runs, so money only moves through those operations: deposits and withdrawals
+// change balances and funds alike, transfers change neither total, and an approved loan
+// moves its amount from the funds to a balance.
+class BankConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int OPERATIONS = 20_000;
+    private static final int ACCOUNTS = 64;
+
+    @Test
+    void balancesAndFundsStayConsistent() throws Exception {
+        Bank bank = new Bank(BankEventSink.NONE);
+        String[] holders = new String[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            holders[i] = "holder" + i;
+            bank.createAccount(holders[i], i % 2 == 0 ? "savings" : "student", 5_000);
+        }
+        long fundsBefore = bank.getInternalFunds();
+        long balancesBefore = sumBalances(bank, holders);
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < OPERATIONS; i++) {
+                        String holder = holders[random.nextInt(ACCOUNTS)];
+                        long amount = Money.of(1 + random.nextInt(500));
+                        switch (random.nextInt(5)) {
+                            case 0 -> bank.deposit(holder, amount);
+                            case 1 -> bank.withdraw(holder, amount);
+                            case 2 -> bank.transfer(holder, holders[random.nextInt(ACCOUNTS)], amount);
+                            case 3 -> bank.requestLoan(holder, Money.of(1 + random.nextInt(50)));
+                            default -> bank.approveLoan(1);
+                        }
+                    }
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) thread.join();
+        assertEquals(List.of(), failures);
+
+        long loans = 0;
+        for (String holder : holders) loans += bank.getAccount(holder).getLoanAmount();
+        long balanceChange = sumBalances(bank, holders) - balancesBefore;
+        long fundsChange = bank.getInternalFunds() - fundsBefore;
+
+        // With d the net deposits and l the loans paid out, balances grew by d + l and funds by d - l
+        assertEquals(balanceChange - 2 * loans, fundsChange);
+        assertTrue(loans > 0, "some loans should have been approved");
+        assertEquals(bank.getPendingLoanCount() > 0, bank.isLoanRequestPending());
+        assertEquals(List.of(), bank.verifyTotals());
+    }
+
+    @Test
+    void concurrentApprovalsNeverOverspendFunds() throws Exception {
+        Bank bank = new Bank(BankEventSink.NONE);
+        int accounts = 300;
+        for (int i = 0; i < accounts; i++) bank.createAccount("holder" + i, "savings", 1_000);
+        // Every request fits the funds on its own, but together they ask for far more
+        long loan = Money.of(10_000);
+        for (int i = 0; i < accounts; i++) bank.requestLoan("holder" + i, loan);
+        long funds = bank.getInternalFunds();
+
+        Thread[] threads = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            threads[t] = new Thread(() -> {
+                while (bank.getPendingLoanCount() > 0) bank.approveLoan(1);
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) thread.join();
+
+        long loans = 0;
+        for (int i = 0; i < accounts; i++) loans += bank.getAccount("holder" + i).getLoanAmount();
+        assertTrue(bank.getInternalFunds() >= 0, "funds went negative: " + bank.getInternalFunds());
+        assertEquals(funds / loan * loan, loans);
+        assertEquals(funds - loans, bank.getInternalFunds());
+    }
+
+    @Test
+    void snapshotsRunAlongsideAccountCreation(@TempDir Path directory) throws Exception {
+        Bank bank = Bank.recover(directory, Journal.SyncPolicy.NONE, BankEventSink.NONE);
+        int accounts = 20_000;
+        Thread creator = new Thread(() -> {
+            for (int i = 0; i < accounts; i++) bank.createAccount("holder" + i, "savings", 1_000);
+        });
+        creator.start();
+        while (creator.isAlive()) bank.snapshot();
+        creator.join();
+        bank.snapshot();
+        bank.close();
+
+        Bank recovered = Bank.recover(directory, Journal.SyncPolicy.NONE, BankEventSink.NONE);
+        for (int i = 0; i < accounts; i++) assertTrue(recovered.isAccountExist("holder" + i), "holder" + i);
+        recovered.close();
+    }
+
+    private static long sumBalances(Bank bank, String[] holders) {
+        long sum = 0;
+        for (String holder : holders) sum += bank.getAccount(holder).getBalance();
+        return sum;
+    }
+}
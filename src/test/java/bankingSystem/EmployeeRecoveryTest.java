@@ -0,0 +1,86 @@
+package bankingSystem;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32C;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+// EmployeeRecoveryTest class
+// Hires and loaded roles must come back after a restart, from the journal alone and from a
+// snapshot followed by newer journal segments
+class EmployeeRecoveryTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void hiresAndRolesSurviveRecovery() throws IOException {
+        Path journal = directory.resolve("journal");
+        Path rolesFile = directory.resolve("roles.properties");
+
+        Bank bank = Bank.recover(journal, Journal.SyncPolicy.NONE, BankEventSink.NONE);
+        Files.writeString(rolesFile, "A = lookup, see\nC = lookup, approve\n");
+        bank.loadRoles(rolesFile);
+        bank.createEmployees("A", 3);
+        bank.createEmployees("C", 2);
+        bank.close();
+
+        bank = Bank.recover(journal, Journal.SyncPolicy.NONE, BankEventSink.NONE);
+        assertTrue(bank.isEmployee("A3"));
+        assertFalse(bank.isEmployee("A4"));
+        assertTrue(bank.getEmployee("A1").permits(EmployeeOperation.SEE_INTERNAL_FUND));
+        assertTrue(bank.getEmployee("C1").permits(EmployeeOperation.APPROVE_LOAN));
+
+        // A role nobody holds yet must survive the snapshot as well
+        Files.writeString(rolesFile, "B = see\n");
+        bank.loadRoles(rolesFile);
+        bank.snapshot();
+        bank.createEmployees("A", 1);
+        bank.close();
+
+        bank = Bank.recover(journal, Journal.SyncPolicy.NONE, BankEventSink.NONE);
+        assertTrue(bank.isEmployee("A4"));
+        assertTrue(bank.getEmployee("C1").permits(EmployeeOperation.APPROVE_LOAN));
+        assertEquals("B1", bank.createEmployee("B").name);
+        bank.close();
+    }
+
+    @Test
+    void versionOneSnapshotKeepsBuiltInPermissions() throws IOException {
+        // A version 1 snapshot: no accounts or loans, 4 officers and 6 cashiers hired
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0x42414E4B);
+        out.writeInt(1);
+        out.writeLong(0);
+        out.writeInt(3);
+        out.writeLong(Money.of(1_000_000));
+        out.writeInt(Bank.AccountType.values().length);
+        for (int i = 0; i < Bank.AccountType.values().length; i++) out.writeLong(0);
+        out.writeInt(4);
+        out.writeInt(6);
+        out.writeInt(0);
+        out.writeInt(0);
+        CRC32C crc = new CRC32C();
+        crc.update(bytes.toByteArray());
+        out.writeLong(crc.getValue());
+        Path journal = Files.createDirectories(directory.resolve("journal"));
+        Files.write(journal.resolve("snapshot-0000000000000000.snap"), bytes.toByteArray());
+
+        Bank bank = Bank.recover(journal, Journal.SyncPolicy.NONE, BankEventSink.NONE);
+        assertTrue(bank.isEmployee("O4"));
+        assertTrue(bank.isEmployee("C6"));
+        assertFalse(bank.isEmployee("O5"));
+        assertTrue(bank.getEmployee("O1").permits(EmployeeOperation.LOOKUP));
+        assertTrue(bank.getEmployee("O1").permits(EmployeeOperation.APPROVE_LOAN));
+        assertTrue(bank.getEmployee("C1").permits(EmployeeOperation.LOOKUP));
+        assertFalse(bank.getEmployee("C1").permits(EmployeeOperation.APPROVE_LOAN));
+        bank.close();
+    }
+}
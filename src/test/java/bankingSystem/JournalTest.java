@@ -0,0 +1,82 @@
+package bankingSystem;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+// JournalTest class
+// Replay returns exactly the records that reached the file intact: a torn last record is cut
+// off, and records whose write failed are kept and written by the next commit
+class JournalTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void tornTailIsCutOffOnReplay() throws IOException {
+        Journal journal = Journal.open(directory, Journal.SyncPolicy.NONE, 10);
+        journal.commit(journal.deposit("alice", 100));
+        journal.commit(journal.deposit("bob", 200));
+        journal.commit(journal.withdraw("alice", 50));
+        journal.close();
+
+        // A crash in the middle of the last record leaves only part of it behind
+        Path segment = onlySegment();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+        assertEquals(List.of("DEPOSIT alice 100", "DEPOSIT bob 200"), replay());
+
+        // The torn bytes are gone, so new records follow the last intact one
+        journal = Journal.open(directory, Journal.SyncPolicy.NONE, 10);
+        journal.commit(journal.deposit("carol", 300));
+        journal.close();
+        assertEquals(List.of("DEPOSIT alice 100", "DEPOSIT bob 200", "DEPOSIT carol 300"), replay());
+    }
+
+    @Test
+    void recordsSurviveAFailedWrite() throws Exception {
+        Journal journal = Journal.open(directory, Journal.SyncPolicy.NONE, 10);
+        journal.commit(journal.deposit("alice", 100));
+
+        // Swap in a closed channel so the next write fails, as a full disk would
+        Field field = Journal.class.getDeclaredField("channel");
+        field.setAccessible(true);
+        FileChannel channel = (FileChannel) field.get(journal);
+        FileChannel failing = FileChannel.open(onlySegment(), StandardOpenOption.READ);
+        failing.close();
+        field.set(journal, failing);
+        long sequence = journal.deposit("bob", 200);
+        assertThrows(UncheckedIOException.class, () -> journal.commit(sequence));
+
+        field.set(journal, channel);
+        journal.commit(journal.withdraw("alice", 50));
+        journal.close();
+        assertEquals(List.of("DEPOSIT alice 100", "DEPOSIT bob 200", "WITHDRAW alice 50"), replay());
+    }
+
+    private List<String> replay() {
+        List<String> entries = new ArrayList<>();
+        Journal.replay(directory, 0, entry -> entries.add(entry.kind() + " " + entry.accountHolder() + " " + entry.amount()));
+        return entries;
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = files.filter(path -> path.getFileName().toString().endsWith(".log")).toList();
+            assertEquals(1, segments.size());
+            return segments.get(0);
+        }
+    }
+}
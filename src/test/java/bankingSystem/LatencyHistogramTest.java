@@ -0,0 +1,52 @@
+package bankingSystem;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+
+// LatencyHistogramTest class
+// Recordings from many threads all land in the totals, and percentiles stay within the
+// histogram's 3% precision
+class LatencyHistogramTest {
+    private static final int THREADS = 8;
+    private static final int VALUES = 100_000;
+
+    @Test
+    void concurrentRecordingsAreAllCounted() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            threads[t] = new Thread(() -> {
+                for (int value = 1; value <= VALUES; value++) histogram.record(value * 1_000L);
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) thread.join();
+
+        assertEquals((long) THREADS * VALUES, histogram.count());
+        assertEquals(VALUES * 1_000L, histogram.max());
+        assertEquals((VALUES + 1) * 500.0, histogram.mean(), 1e-6);
+        assertWithin(VALUES * 500L, histogram.percentile(0.50));
+        assertWithin(VALUES * 990L, histogram.percentile(0.99));
+        assertEquals(VALUES * 1_000L, histogram.percentile(1.0));
+    }
+
+    @Test
+    void emptyAndSmallValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.percentile(0.5));
+        assertEquals(0, histogram.mean());
+
+        for (int value = 0; value < 64; value++) histogram.record(value);
+        histogram.record(-5);
+        assertEquals(65, histogram.count());
+        // Values this small get a bucket each, so they come back exactly
+        assertEquals(31, histogram.percentile(0.5));
+        assertEquals(63, histogram.percentile(1.0));
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected * 0.03, "expected about " + expected + " but was " + actual);
+    }
+}
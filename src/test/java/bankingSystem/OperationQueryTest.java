@@ -0,0 +1,44 @@
+package bankingSystem;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+
+// OperationQueryTest class
+// The indexed history queries must find exactly what a full scan finds
+class OperationQueryTest {
+    private static final String[] COMMANDS = { "deposit 100", "withdraw 50", "request 20", "query", "open O1" };
+
+    @Test
+    void indexedQueriesMatchFullScan() {
+        Bank bank = new Bank(BankEventSink.NONE);
+        Random random = new Random(7);
+        for (int i = 0; i < 20_000; i++) {
+            if (i % 4_000 == 3_999) bank.incrementYear();
+            String holder = "holder" + random.nextInt(50);
+            bank.addOperation(COMMANDS[random.nextInt(COMMANDS.length)], random.nextBoolean() ? holder : holder.toUpperCase());
+        }
+
+        for (int year = 0; year <= 6; year++) {
+            assertMatches(bank, OperationQuery.all().inYear(year));
+            assertMatches(bank, OperationQuery.all().ofKind(OperationKind.WITHDRAW).inYear(year));
+            assertMatches(bank, OperationQuery.all().by("holder7").inYear(year));
+        }
+        for (OperationKind kind : OperationKind.values()) assertMatches(bank, OperationQuery.all().ofKind(kind));
+        assertMatches(bank, OperationQuery.all().by("HOLDER3").ofKind(OperationKind.DEPOSIT));
+        assertMatches(bank, OperationQuery.all().by("nobody"));
+    }
+
+    @Test
+    void negativeYearsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> OperationQuery.all().inYear(-2));
+    }
+
+    private static void assertMatches(Bank bank, OperationQuery query) {
+        List<OperationQuery.Match> expected = bank.scanOperations(query).toList();
+        assertEquals(expected, bank.queryOperations(query).toList());
+    }
+}
@@ -0,0 +1,166 @@
+package bankingSystem;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import org.junit.jupiter.api.Test;
+
+
+// ShardedBankTest class
+// Two-phase cross-shard transfers over the in-process stand-in transport
+class ShardedBankTest {
+
+    // RecordingTransport class
+    // Passes every call to the in-process transport and remembers which legs were aborted
+    private static final class RecordingTransport implements ShardTransport {
+        private final InProcessTransport delegate;
+        final List<Long> aborted = new ArrayList<>();
+
+        RecordingTransport(Bank[] shards) { this.delegate = new InProcessTransport(shards); }
+
+        @Override
+        public boolean prepareDebit(int shard, long leg, String accountHolder, long amount) {
+            return delegate.prepareDebit(shard, leg, accountHolder, amount);
+        }
+
+        @Override
+        public boolean prepareCredit(int shard, long leg, String accountHolder, long amount) {
+            return delegate.prepareCredit(shard, leg, accountHolder, amount);
+        }
+
+        @Override
+        public void commit(int shard, long leg) { delegate.commit(shard, leg); }
+
+        @Override
+        public synchronized void abort(int shard, long leg) {
+            aborted.add(leg);
+            delegate.abort(shard, leg);
+        }
+    }
+
+    private static Bank[] shards(int count) {
+        Bank[] shards = new Bank[count];
+        for (int i = 0; i < count; i++) shards[i] = new Bank(BankEventSink.NONE);
+        return shards;
+    }
+
+    // Method to find a holder name that routes to the given shard
+    private static String holderOn(ShardedBank bank, int shard, String prefix) {
+        for (int i = 0; ; i++) {
+            if (bank.shardOf(prefix + i) == shard) return prefix + i;
+        }
+    }
+
+    private static Account account(ShardedBank bank, String holder) { return bank.route(holder).getAccount(holder); }
+
+    private static long totalFunds(Bank[] shards) {
+        long total = 0;
+        for (Bank shard : shards) total += shard.getInternalFunds();
+        return total;
+    }
+
+    @Test
+    void commitsBothLegs() {
+        Bank[] shards = shards(2);
+        RecordingTransport transport = new RecordingTransport(shards);
+        ShardedBank bank = new ShardedBank(shards, transport, BankEventSink.NONE);
+        String from = holderOn(bank, 0, "from"), to = holderOn(bank, 1, "to");
+        bank.createAccount(from, "savings", 5000);
+        bank.createAccount(to, "savings", 5000);
+        long funds = totalFunds(shards);
+
+        assertTrue(bank.transfer(from, to, 1000));
+
+        assertEquals(Money.of(4000), account(bank, from).getBalance());
+        assertEquals(Money.of(6000), account(bank, to).getBalance());
+        assertEquals(0, account(bank, from).getHeld());
+        assertEquals(funds, totalFunds(shards));
+        assertEquals(List.of(), transport.aborted);
+    }
+
+    @Test
+    void failedCreditPrepareAbortsAndReleasesHold() {
+        Bank[] shards = shards(2);
+        RecordingTransport transport = new RecordingTransport(shards);
+        ShardedBank bank = new ShardedBank(shards, transport, BankEventSink.NONE);
+        String from = holderOn(bank, 0, "from"), to = holderOn(bank, 1, "to");
+        bank.createAccount(from, "savings", 5000);
+        // A fixed deposit only takes deposits of at least 50,000, so the credit leg refuses
+        bank.createAccount(to, "fixed deposit", 100000);
+        long funds = totalFunds(shards);
+
+        assertFalse(bank.transfer(from, to, 1000));
+
+        assertEquals(1, transport.aborted.size());
+        assertEquals(0, account(bank, from).getHeld());
+        assertEquals(Money.of(5000), account(bank, from).getBalance());
+        assertEquals(Money.of(100000), account(bank, to).getBalance());
+        assertEquals(funds, totalFunds(shards));
+        // The released amount can be withdrawn again
+        assertTrue(bank.route(from).withdraw(from, Money.of(4000)));
+    }
+
+    @Test
+    void concurrentTransfersConserveMoney() throws Exception {
+        Bank[] shards = shards(4);
+        ShardedBank bank = new ShardedBank(shards, new InProcessTransport(shards), BankEventSink.NONE);
+        String[] holders = new String[40];
+        for (int i = 0; i < holders.length; i++) {
+            holders[i] = "holder" + i;
+            bank.createAccount(holders[i], i % 2 == 0 ? "savings" : "student", 3000);
+        }
+        long funds = totalFunds(shards);
+        long balances = 0;
+        for (String holder : holders) balances += account(bank, holder).getBalance();
+
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 5000; i++) {
+                    bank.transfer(holders[random.nextInt(holders.length)], holders[random.nextInt(holders.length)],
+                            1 + random.nextInt(800));
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) thread.join();
+
+        long after = 0;
+        for (String holder : holders) {
+            Account account = account(bank, holder);
+            assertEquals(0, account.getHeld(), holder);
+            after += account.getBalance();
+        }
+        assertEquals(balances, after);
+        assertEquals(funds, totalFunds(shards));
+        for (Bank shard : shards) assertEquals(List.of(), shard.verifyTotals());
+    }
+
+    @Test
+    void yearEndBetweenPrepareAndCommitSparesTheHold() {
+        for (AccrualMode mode : AccrualMode.values()) {
+            Bank shard = new Bank(BankEventSink.NONE);
+            shard.setAccrualMode(mode);
+            ShardTransport transport = new InProcessTransport(new Bank[] { shard });
+            shard.createAccount("holder", "savings", 1000);
+            shard.requestLoan("holder", Money.of(10000));
+            shard.approveLoan();
+            // Without interest, each year-end's loan interest and service charge exceed what is not held
+            shard.changeInterestRate("savings", 0);
+
+            assertTrue(transport.prepareDebit(0, 1, "holder", Money.of(10000)));
+            shard.incrementYear();
+            shard.incrementYear();
+            transport.commit(0, 1);
+
+            Account account = shard.getAccount("holder");
+            shard.queryBalance(account);
+            assertEquals(0, account.getHeld(), mode.name());
+            assertEquals(0, account.getBalance(), mode.name());
+            assertEquals(Money.of(12050), account.getLoanAmount(), mode.name());
+        }
+    }
+}